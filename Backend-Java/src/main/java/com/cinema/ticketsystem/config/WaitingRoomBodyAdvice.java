@@ -0,0 +1,93 @@
+package com.cinema.ticketsystem.config;
+
+import com.cinema.ticketsystem.dto.BestAvailableRequest;
+import com.cinema.ticketsystem.dto.CheckoutRequest;
+import com.cinema.ticketsystem.dto.CreateBatchReservationRequest;
+import com.cinema.ticketsystem.dto.CreateReservationRequest;
+import com.cinema.ticketsystem.exception.QueueTokenMismatchException;
+import com.cinema.ticketsystem.repository.SeatHoldRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.servlet.mvc.method.annotation.RequestBodyAdviceAdapter;
+
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Checks the screening a booking request targets against the one its queue token admitted.
+ * The interceptor runs before the body is read, so the comparison happens here instead.
+ * Checkout only names holds, so their screenings are looked up.
+ */
+@ControllerAdvice
+@RequiredArgsConstructor
+public class WaitingRoomBodyAdvice extends RequestBodyAdviceAdapter {
+    
+    private final SeatHoldRepository seatHoldRepository;
+    
+    @Override
+    public boolean supports(MethodParameter methodParameter, Type targetType,
+                            Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+    
+    @Override
+    public Object afterBodyRead(Object body, HttpInputMessage inputMessage, MethodParameter parameter,
+                                Type targetType, Class<? extends HttpMessageConverter<?>> converterType) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        Object admitted = attributes != null
+                ? attributes.getAttribute(WaitingRoomInterceptor.ADMITTED_SCREENING_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST)
+                : null;
+        if (admitted == null) {
+            return body;
+        }
+        for (Long screeningId : targetScreenings(body)) {
+            if (!admitted.equals(screeningId)) {
+                throw new QueueTokenMismatchException("Your queue token was issued for a different screening.");
+            }
+        }
+        return body;
+    }
+    
+    @ExceptionHandler(QueueTokenMismatchException.class)
+    public ResponseEntity<Map<String, Object>> handleMismatch(QueueTokenMismatchException e) {
+        return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of("message", e.getMessage()));
+    }
+    
+    // Missing IDs are left to the controller's own validation
+    private List<Long> targetScreenings(Object body) {
+        if (body instanceof CreateReservationRequest request) {
+            return single(request.getScreeningId());
+        }
+        if (body instanceof CreateBatchReservationRequest request) {
+            return single(request.getScreeningId());
+        }
+        if (body instanceof BestAvailableRequest request) {
+            return single(request.getScreeningId());
+        }
+        if (body instanceof CheckoutRequest request) {
+            List<Long> holdIds = request.getHoldIds();
+            return holdIds == null || holdIds.isEmpty() ? List.of() : seatHoldRepository.findScreeningIdsByIdIn(holdIds);
+        }
+        if (body instanceof Map<?, ?> request && request.get("screeningId") != null) {
+            try {
+                return single(Long.valueOf(request.get("screeningId").toString()));
+            } catch (NumberFormatException e) {
+                return List.of();
+            }
+        }
+        return List.of();
+    }
+    
+    private static List<Long> single(Long screeningId) {
+        return screeningId == null ? List.of() : List.of(screeningId);
+    }
+}
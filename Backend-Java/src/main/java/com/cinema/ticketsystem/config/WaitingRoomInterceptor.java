@@ -0,0 +1,78 @@
+package com.cinema.ticketsystem.config;
+
+import com.cinema.ticketsystem.security.UserDetailsImpl;
+import com.cinema.ticketsystem.service.WaitingRoomService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.io.IOException;
+
+/**
+ * Admission control for booking writes. When the waiting room is enabled, a POST to a
+ * booking endpoint needs an admitted queue token and a free booking permit; everything
+ * else is turned away before it reaches a Tomcat-held database connection.
+ * A token only admits its own screening: the admitted screening is kept on the request and
+ * {@link WaitingRoomBodyAdvice} rejects a body that targets any other one.
+ */
+@Component
+@RequiredArgsConstructor
+public class WaitingRoomInterceptor implements HandlerInterceptor {
+    
+    public static final String QUEUE_TOKEN_HEADER = "X-Queue-Token";
+    public static final String ADMITTED_SCREENING_ATTRIBUTE = WaitingRoomInterceptor.class.getName() + ".screening";
+    private static final String PERMIT_ATTRIBUTE = WaitingRoomInterceptor.class.getName() + ".permit";
+    
+    private final WaitingRoomService waitingRoomService;
+    
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws IOException {
+        if (!waitingRoomService.isEnabled() || !"POST".equalsIgnoreCase(request.getMethod())) {
+            return true;
+        }
+        
+        Long admittedScreeningId = waitingRoomService.getAdmittedScreeningId(
+                request.getHeader(QUEUE_TOKEN_HEADER), currentUserId());
+        if (admittedScreeningId == null) {
+            reject(response, HttpStatus.TOO_MANY_REQUESTS, "Please join the waiting room and wait for your turn.");
+            return false;
+        }
+        if (!waitingRoomService.tryEnterBooking()) {
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            reject(response, HttpStatus.SERVICE_UNAVAILABLE, "Booking is busy. Please try again in a moment.");
+            return false;
+        }
+        request.setAttribute(PERMIT_ATTRIBUTE, Boolean.TRUE);
+        request.setAttribute(ADMITTED_SCREENING_ATTRIBUTE, admittedScreeningId);
+        return true;
+    }
+    
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (request.getAttribute(PERMIT_ATTRIBUTE) != null) {
+            request.removeAttribute(PERMIT_ATTRIBUTE);
+            waitingRoomService.leaveBooking();
+        }
+    }
+    
+    private Long currentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof UserDetailsImpl userDetails) {
+            return userDetails.getId();
+        }
+        return null;
+    }
+    
+    private void reject(HttpServletResponse response, HttpStatus status, String message) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write("{\"message\":\"" + message + "\"}");
+    }
+}
@@ -0,0 +1,20 @@
+package com.cinema.ticketsystem.config;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+@RequiredArgsConstructor
+public class WebMvcConfig implements WebMvcConfigurer {
+    
+    private final WaitingRoomInterceptor waitingRoomInterceptor;
+    
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(waitingRoomInterceptor)
+                .addPathPatterns("/api/seats/hold", "/api/seats/best-available",
+                        "/api/reservations", "/api/reservations/**");
+    }
+}
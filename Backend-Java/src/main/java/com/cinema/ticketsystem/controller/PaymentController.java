@@ -2,6 +2,7 @@ package com.cinema.ticketsystem.controller;
 
 import com.cinema.ticketsystem.model.Payment;
 import com.cinema.ticketsystem.security.UserDetailsImpl;
+import com.cinema.ticketsystem.service.IdempotencyService;
 import com.cinema.ticketsystem.service.PaymentService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
@@ -19,20 +20,24 @@ import java.util.Map;
 public class PaymentController {
     
     private final PaymentService paymentService;
+    private final IdempotencyService idempotencyService;
     
     @PostMapping("/initiate")
     @PreAuthorize("isAuthenticated()")
-    public ResponseEntity<Map<String, Object>> initiatePayment(
+    public ResponseEntity<?> initiatePayment(
             @AuthenticationPrincipal UserDetailsImpl userDetails,
-            @RequestBody Map<String, Object> request) {
+            @RequestBody Map<String, Object> request,
+            @RequestHeader(value = IdempotencyService.IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
         Long reservationId = Long.valueOf(request.get("reservationId").toString());
         Payment.PaymentMethod paymentMethod = Payment.PaymentMethod.valueOf(
                 request.get("paymentMethod").toString().toUpperCase());
         
-        Map<String, Object> response = paymentService.initiatePayment(
-                userDetails.getId(), reservationId, paymentMethod);
-        
-        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        // A retried initiate replays the first response instead of creating another Payment row
+        return idempotencyService.execute(userDetails.getId(), "initiate-payment", idempotencyKey, request, () -> {
+            Map<String, Object> response = paymentService.initiatePayment(
+                    userDetails.getId(), reservationId, paymentMethod);
+            return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        });
     }
     
     @PostMapping("/{paymentId}/process")
@@ -1,18 +1,28 @@
 package com.cinema.ticketsystem.controller;
 
+import com.cinema.ticketsystem.dto.CheckoutRequest;
+import com.cinema.ticketsystem.dto.CreateBatchReservationRequest;
 import com.cinema.ticketsystem.dto.CreateReservationRequest;
 import com.cinema.ticketsystem.dto.ReservationDTO;
+import com.cinema.ticketsystem.exception.SeatConflictException;
+import com.cinema.ticketsystem.exception.SeatWriterBusyException;
 import com.cinema.ticketsystem.security.JwtTokenUtil;
+import com.cinema.ticketsystem.service.IdempotencyService;
 import com.cinema.ticketsystem.service.ReservationService;
 import jakarta.validation.Valid;
 import lombok.Getter;
 import lombok.Setter;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/reservations")
@@ -25,6 +35,9 @@ public class ReservationController {
     @Autowired
     private JwtTokenUtil jwtTokenUtil;
     
+    @Autowired
+    private IdempotencyService idempotencyService;
+    
     @GetMapping("/my")
     public ResponseEntity<?> getMyReservations(@RequestHeader("Authorization") String authHeader) {
         try {
@@ -40,23 +53,107 @@ public class ReservationController {
     
     @PostMapping
     public ResponseEntity<?> createReservation(@Valid @RequestBody CreateReservationRequest request,
-                                              @RequestHeader("Authorization") String authHeader) {
+                                              @RequestHeader("Authorization") String authHeader,
+                                              @RequestHeader(value = IdempotencyService.IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
+        Long userId;
+        try {
+            userId = extractUserId(authHeader);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
+        }
+        // Retried requests with the same key get the first response instead of a second booking attempt
+        return idempotencyService.execute(userId, "create-reservation", idempotencyKey, request,
+                () -> reserveSeat(userId, request));
+    }
+    
+    private ResponseEntity<?> reserveSeat(Long userId, CreateReservationRequest request) {
         try {
-            String token = authHeader.substring(7);
-            Long userId = jwtTokenUtil.extractClaim(token, claims -> claims.get("userId", Long.class));
-            
             ReservationDTO reservation = reservationService.createReservation(userId, request);
             return ResponseEntity.ok(reservation);
+        } catch (SeatWriterBusyException | ConcurrencyFailureException e) {
+            return unavailable(e);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
+        } catch (RuntimeException e) {
+            if (e.getMessage().contains("already reserved") || e.getMessage().contains("already held")) {
+                return ResponseEntity.status(409).body(new ErrorResponse(e.getMessage()));
+            }
+            return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
+        }
+    }
+    
+    @PostMapping("/batch")
+    public ResponseEntity<?> createReservations(@Valid @RequestBody CreateBatchReservationRequest request,
+                                               @RequestHeader("Authorization") String authHeader,
+                                               @RequestHeader(value = IdempotencyService.IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
+        Long userId;
+        try {
+            userId = extractUserId(authHeader);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
+        }
+        return idempotencyService.execute(userId, "create-reservations", idempotencyKey, request,
+                () -> reserveSeats(userId, request));
+    }
+    
+    private ResponseEntity<?> reserveSeats(Long userId, CreateBatchReservationRequest request) {
+        try {
+            List<ReservationDTO> reservations = reservationService.createReservations(userId, request);
+            return ResponseEntity.ok(reservations);
+        } catch (SeatConflictException e) {
+            Map<String, Object> body = new HashMap<>();
+            body.put("message", e.getMessage());
+            body.put("conflicts", e.getConflicts());
+            return ResponseEntity.status(409).body(body);
+        } catch (SeatWriterBusyException | ConcurrencyFailureException e) {
+            return unavailable(e);
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
         } catch (RuntimeException e) {
-            if (e.getMessage().contains("already reserved")) {
+            if (e.getMessage() != null && e.getMessage().contains("already reserved")) {
                 return ResponseEntity.status(409).body(new ErrorResponse(e.getMessage()));
             }
             return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
         }
     }
     
+    @PostMapping("/checkout")
+    public ResponseEntity<?> checkout(@Valid @RequestBody CheckoutRequest request,
+                                      @RequestHeader("Authorization") String authHeader,
+                                      @RequestHeader(value = IdempotencyService.IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
+        Long userId;
+        try {
+            userId = extractUserId(authHeader);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
+        }
+        return idempotencyService.execute(userId, "checkout", idempotencyKey, request,
+                () -> checkoutHolds(userId, request));
+    }
+    
+    private ResponseEntity<?> checkoutHolds(Long userId, CheckoutRequest request) {
+        try {
+            List<ReservationDTO> reservations = reservationService.checkout(userId, request);
+            return ResponseEntity.ok(reservations);
+        } catch (SeatWriterBusyException | ConcurrencyFailureException e) {
+            return unavailable(e);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
+        } catch (RuntimeException e) {
+            if (e.getMessage() != null && e.getMessage().contains("have expired or were released")) {
+                return ResponseEntity.status(409).body(new ErrorResponse(e.getMessage()));
+            }
+            return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
+        }
+    }
+    
+    // Backpressure and lock contention are worth retrying, so they are not reported as bad requests
+    private ResponseEntity<?> unavailable(RuntimeException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(new ErrorResponse(e.getMessage()));
+    }
+    
     @DeleteMapping("/screening/{screeningId}/row/{row}/seat/{seat}")
     public ResponseEntity<?> deleteReservation(@PathVariable Long screeningId,
                                               @PathVariable Integer row,
@@ -73,6 +170,11 @@ public class ReservationController {
         }
     }
     
+    private Long extractUserId(String authHeader) {
+        String token = authHeader.substring(7);
+        return jwtTokenUtil.extractClaim(token, claims -> claims.get("userId", Long.class));
+    }
+    
     @Getter @Setter
     private static class ErrorResponse {
         public String message;
@@ -1,43 +1,79 @@
 package com.cinema.ticketsystem.controller;
 
 import com.cinema.ticketsystem.dto.CreateScreeningRequest;
+import com.cinema.ticketsystem.dto.ScheduleValidationResultDTO;
 import com.cinema.ticketsystem.dto.ScreeningDTO;
 import com.cinema.ticketsystem.dto.ScreeningDetailDTO;
+import com.cinema.ticketsystem.dto.ScreeningImportReportDTO;
+import com.cinema.ticketsystem.dto.ScreeningPageDTO;
+import com.cinema.ticketsystem.service.ScreeningImportService;
+import com.cinema.ticketsystem.service.ScreeningScheduleService;
 import com.cinema.ticketsystem.service.ScreeningService;
 import jakarta.validation.Valid;
 import lombok.Getter;
 import lombok.Setter;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.io.InputStream;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/screenings")
 @CrossOrigin(origins = "http://localhost:4200")
 public class ScreeningController {
     
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    
     @Autowired
     private ScreeningService screeningService;
     
+    @Autowired
+    private ScreeningScheduleService screeningScheduleService;
+    
+    @Autowired
+    private ScreeningImportService screeningImportService;
+    
     @GetMapping
-    public ResponseEntity<List<ScreeningDTO>> getAllScreenings() {
+    public ResponseEntity<List<ScreeningDTO>> getAllScreenings(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) Long cinemaId,
+            @RequestParam(required = false) Long movieId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
         try {
-            List<ScreeningDTO> screenings = screeningService.getAllScreenings();
-            return ResponseEntity.ok(screenings);
+            // Upcoming screenings by default; the next page is requested with the X-Next-Cursor value
+            ScreeningPageDTO page = screeningService.getScreenings(from, to, cinemaId, movieId, cursor, limit);
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+            if (page.getNextCursor() != null) {
+                response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+            }
+            return response.body(page.getScreenings());
         } catch (Exception e) {
             return ResponseEntity.badRequest().build();
         }
     }
     
     @GetMapping("/{id}")
-    public ResponseEntity<?> getScreening(@PathVariable Long id) {
+    public ResponseEntity<?> getScreening(@PathVariable Long id, WebRequest webRequest) {
         try {
+            // Version check runs against the in-memory seat inventory, without loading the screening.
+            // Movie edits evict that state, so the generation in the tag also covers the non-seat fields
+            String eTag = "\"screening-" + screeningService.getSeatMapVersionTag(id) + "\"";
+            if (webRequest.checkNotModified(eTag)) {
+                return null;
+            }
             ScreeningDetailDTO screening = screeningService.getScreeningWithSeats(id);
-            return ResponseEntity.ok(screening);
+            return ResponseEntity.ok().eTag(eTag).body(screening);
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
         }
@@ -54,6 +90,49 @@ public class ScreeningController {
         }
     }
     
+    @PostMapping("/schedule/validate")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> validateSchedule(@RequestBody List<CreateScreeningRequest> requests) {
+        try {
+            List<ScheduleValidationResultDTO> results = screeningScheduleService.validateSchedule(requests);
+            return ResponseEntity.ok(results);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
+        }
+    }
+    
+    /**
+     * Imports screenings from an NDJSON body (one CreateScreeningRequest per line) or a CSV body
+     * with a cinemaId,movieId,startDateTime,ticketPrice header. The body is read as a stream.
+     */
+    @PostMapping(value = "/import", consumes = {"application/x-ndjson", "text/csv"})
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> importScreenings(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                              InputStream body) {
+        try {
+            String format = contentType.toLowerCase().startsWith("text/csv")
+                    ? ScreeningImportService.FORMAT_CSV : ScreeningImportService.FORMAT_NDJSON;
+            ScreeningImportReportDTO report = screeningImportService.importScreenings(body, format);
+            return ResponseEntity.ok(report);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
+        }
+    }
+    
+    @GetMapping("/schedule/next-free-slot")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> getNextFreeSlot(
+            @RequestParam Long cinemaId,
+            @RequestParam Long movieId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from) {
+        try {
+            LocalDateTime start = screeningScheduleService.findNextFreeSlot(cinemaId, movieId, from);
+            return ResponseEntity.ok(Map.of("startDateTime", start));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
+        }
+    }
+    
     @DeleteMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<?> deleteScreening(@PathVariable Long id) {
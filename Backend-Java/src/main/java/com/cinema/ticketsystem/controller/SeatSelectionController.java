@@ -1,13 +1,27 @@
 package com.cinema.ticketsystem.controller;
 
+import com.cinema.ticketsystem.dto.BestAvailableRequest;
+import com.cinema.ticketsystem.exception.HoldQuotaExceededException;
+import com.cinema.ticketsystem.exception.SeatConflictException;
+import com.cinema.ticketsystem.exception.SeatWriterBusyException;
+import com.cinema.ticketsystem.security.JwtTokenUtil;
 import com.cinema.ticketsystem.security.UserDetailsImpl;
+import com.cinema.ticketsystem.service.IdempotencyService;
+import com.cinema.ticketsystem.service.SeatEventService;
 import com.cinema.ticketsystem.service.SeatSelectionService;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -16,23 +30,110 @@ import java.util.Map;
 @RequiredArgsConstructor
 public class SeatSelectionController {
     
+    private static final String PACKED_SEAT_MAP_TYPE = "application/vnd.cinema.seatmap-packed+json";
+    
     private final SeatSelectionService seatSelectionService;
+    private final SeatEventService seatEventService;
+    private final IdempotencyService idempotencyService;
+    private final JwtTokenUtil jwtTokenUtil;
     
     @GetMapping("/screening/{screeningId}")
-    public ResponseEntity<Map<String, Object>> getAvailableSeats(@PathVariable Long screeningId) {
-        return ResponseEntity.ok(seatSelectionService.getAvailableSeats(screeningId));
+    public ResponseEntity<Map<String, Object>> getAvailableSeats(
+            @PathVariable Long screeningId,
+            @RequestParam(required = false) String format,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            WebRequest webRequest) {
+        // Compact 2-bit-per-seat map, requested with ?format=packed or the vendor media type
+        boolean packed = "packed".equalsIgnoreCase(format) || (accept != null && accept.contains(PACKED_SEAT_MAP_TYPE));
+        
+        // Unchanged polls are answered from the in-memory version alone
+        String eTag = "\"seats-" + (packed ? "packed-" : "") + seatSelectionService.getSeatMapVersionTag(screeningId) + "\"";
+        if (webRequest.checkNotModified(eTag)) {
+            return null;
+        }
+        
+        Map<String, Object> seatMap = packed
+                ? seatSelectionService.getPackedSeatMap(screeningId)
+                : seatSelectionService.getAvailableSeats(screeningId);
+        return ResponseEntity.ok()
+                .eTag(eTag)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT)
+                .body(seatMap);
+    }
+    
+    // Exchanged for ?token= on the events stream below
+    @PostMapping("/screening/{screeningId}/events/token")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<Map<String, Object>> createSeatEventsToken(
+            @AuthenticationPrincipal UserDetailsImpl userDetails,
+            @PathVariable Long screeningId) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("token", jwtTokenUtil.generateSeatEventsToken(userDetails, userDetails.getId(), screeningId));
+        response.put("expiresInSeconds", jwtTokenUtil.getStreamExpirationSeconds());
+        return ResponseEntity.ok(response);
+    }
+    
+    @GetMapping(value = "/screening/{screeningId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("isAuthenticated()")
+    public SseEmitter streamSeatEvents(@AuthenticationPrincipal UserDetailsImpl userDetails,
+                                       @PathVariable Long screeningId) {
+        return seatEventService.subscribe(screeningId, userDetails.getId());
     }
     
     @PostMapping("/hold")
     @PreAuthorize("isAuthenticated()")
-    public ResponseEntity<Map<String, Object>> holdSeats(
+    public ResponseEntity<?> holdSeats(
             @AuthenticationPrincipal UserDetailsImpl userDetails,
-            @RequestBody Map<String, Object> request) {
+            @RequestBody Map<String, Object> request,
+            @RequestHeader(value = IdempotencyService.IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
         Long screeningId = Long.valueOf(request.get("screeningId").toString());
         @SuppressWarnings("unchecked")
         List<Map<String, Integer>> seats = (List<Map<String, Integer>>) request.get("seats");
         
-        return ResponseEntity.ok(seatSelectionService.holdSeats(userDetails.getId(), screeningId, seats));
+        return idempotencyService.execute(userDetails.getId(), "hold-seats", idempotencyKey, request, () -> {
+            try {
+                return ResponseEntity.ok(seatSelectionService.holdSeats(userDetails.getId(), screeningId, seats));
+            } catch (SeatConflictException e) {
+                Map<String, Object> body = new HashMap<>();
+                body.put("message", e.getMessage());
+                body.put("conflicts", e.getConflicts());
+                return ResponseEntity.status(HttpStatus.CONFLICT).body(body);
+            } catch (HoldQuotaExceededException e) {
+                return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).body(Map.of("message", e.getMessage()));
+            } catch (SeatWriterBusyException e) {
+                return writerBusy(e);
+            }
+        });
+    }
+    
+    @PostMapping("/best-available")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<Map<String, Object>> holdBestAvailable(
+            @AuthenticationPrincipal UserDetailsImpl userDetails,
+            @Valid @RequestBody BestAvailableRequest request) {
+        try {
+            return ResponseEntity.ok(seatSelectionService.holdBestAvailable(userDetails.getId(), request));
+        } catch (HoldQuotaExceededException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).body(Map.of("message", e.getMessage()));
+        } catch (SeatWriterBusyException e) {
+            return writerBusy(e);
+        }
+    }
+    
+    private static ResponseEntity<Map<String, Object>> writerBusy(SeatWriterBusyException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(Map.of("message", e.getMessage()));
+    }
+    
+    @PostMapping("/hold/heartbeat")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<Map<String, Object>> extendHolds(
+            @AuthenticationPrincipal UserDetailsImpl userDetails,
+            @RequestBody(required = false) Map<String, List<Long>> request) {
+        // Without hold IDs every active hold of the user is extended
+        List<Long> holdIds = request != null ? request.get("holdIds") : null;
+        return ResponseEntity.ok(seatSelectionService.extendHolds(userDetails.getId(), holdIds));
     }
     
     @DeleteMapping("/hold")
@@ -0,0 +1,35 @@
+package com.cinema.ticketsystem.controller;
+
+import com.cinema.ticketsystem.dto.ShowtimeDTO;
+import com.cinema.ticketsystem.service.ShowtimeService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/showtimes")
+@CrossOrigin(origins = "http://localhost:4200")
+public class ShowtimeController {
+    
+    @Autowired
+    private ShowtimeService showtimeService;
+    
+    // Defaults to today; served from memory, ordered by start time
+    @GetMapping
+    public ResponseEntity<?> getShowtimes(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestParam(required = false) Long cinemaId,
+            @RequestParam(required = false) Long movieId) {
+        try {
+            List<ShowtimeDTO> showtimes = showtimeService.getShowtimes(date, cinemaId, movieId);
+            return ResponseEntity.ok(showtimes);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        }
+    }
+}
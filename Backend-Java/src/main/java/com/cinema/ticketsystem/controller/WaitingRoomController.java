@@ -0,0 +1,35 @@
+package com.cinema.ticketsystem.controller;
+
+import com.cinema.ticketsystem.config.WaitingRoomInterceptor;
+import com.cinema.ticketsystem.security.UserDetailsImpl;
+import com.cinema.ticketsystem.service.WaitingRoomService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/waiting-room")
+@RequiredArgsConstructor
+public class WaitingRoomController {
+    
+    private final WaitingRoomService waitingRoomService;
+    
+    @PostMapping("/screening/{screeningId}/join")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<Map<String, Object>> join(
+            @AuthenticationPrincipal UserDetailsImpl userDetails,
+            @PathVariable Long screeningId) {
+        return ResponseEntity.ok(waitingRoomService.join(userDetails.getId(), screeningId));
+    }
+    
+    @GetMapping("/status")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<Map<String, Object>> getStatus(
+            @RequestHeader(WaitingRoomInterceptor.QUEUE_TOKEN_HEADER) String token) {
+        return ResponseEntity.ok(waitingRoomService.getStatus(token));
+    }
+}
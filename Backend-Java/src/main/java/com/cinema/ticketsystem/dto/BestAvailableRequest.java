@@ -0,0 +1,29 @@
+package com.cinema.ticketsystem.dto;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BestAvailableRequest {
+    
+    @NotNull(message = "Screening ID is required")
+    private Long screeningId;
+    
+    @NotNull(message = "Party size is required")
+    @Min(value = 1, message = "Party size must be at least 1")
+    @Max(value = 20, message = "Party size cannot exceed 20")
+    private Integer partySize;
+    
+    // Optional preferred row band; defaults to the middle-back of the auditorium
+    @Min(value = 1, message = "Preferred row must be at least 1")
+    private Integer preferredRowFrom;
+    
+    @Min(value = 1, message = "Preferred row must be at least 1")
+    private Integer preferredRowTo;
+}
@@ -0,0 +1,17 @@
+package com.cinema.ticketsystem.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CheckoutRequest {
+    
+    @NotEmpty(message = "At least one hold ID is required")
+    private List<Long> holdIds;
+}
@@ -0,0 +1,24 @@
+package com.cinema.ticketsystem.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CreateBatchReservationRequest {
+    
+    @NotNull(message = "Screening ID is required")
+    private Long screeningId;
+    
+    @NotEmpty(message = "At least one seat is required")
+    @Size(max = 20, message = "At most 20 seats can be reserved at once")
+    private List<@Valid SeatPosition> seats;
+}
@@ -0,0 +1,23 @@
+package com.cinema.ticketsystem.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ScheduleValidationResultDTO {
+    private Integer index;
+    private Long cinemaId;
+    private Long movieId;
+    private LocalDateTime startDateTime;
+    private LocalDateTime endDateTime; // film end plus cleaning buffer
+    private Boolean valid;
+    private List<Long> conflictingScreeningIds;
+    private List<Integer> conflictingIndexes; // earlier entries of the same batch
+    private String message;
+}
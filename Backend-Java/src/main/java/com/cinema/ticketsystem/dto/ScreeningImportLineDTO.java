@@ -0,0 +1,18 @@
+package com.cinema.ticketsystem.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ScreeningImportLineDTO {
+    private Long line;
+    private String status; // CREATED or REJECTED
+    private Long screeningId;
+    private List<Long> conflictingScreeningIds;
+    private String message;
+}
@@ -0,0 +1,19 @@
+package com.cinema.ticketsystem.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ScreeningImportReportDTO {
+    private Integer total;
+    private Integer created;
+    private Integer rejected;
+    private Long durationMillis;
+    private List<ScreeningImportLineDTO> lines;
+    private Boolean truncated; // true when input past the line limit was not read
+}
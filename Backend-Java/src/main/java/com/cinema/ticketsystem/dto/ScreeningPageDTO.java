@@ -0,0 +1,15 @@
+package com.cinema.ticketsystem.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ScreeningPageDTO {
+    private List<ScreeningDTO> screenings;
+    private String nextCursor; // null on the last page
+}
@@ -0,0 +1,14 @@
+package com.cinema.ticketsystem.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SeatConflictDTO {
+    private Integer row;
+    private Integer seat;
+    private String reason; // RESERVED or HELD
+}
@@ -11,5 +11,6 @@ public class SeatDTO {
     private Integer row;
     private Integer seat;
     private Boolean isReserved;
+    private String status; // AVAILABLE, HELD or RESERVED
     private Long userId;
 }
@@ -0,0 +1,15 @@
+package com.cinema.ticketsystem.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SeatStatusDeltaDTO {
+    private Integer row;
+    private Integer seat;
+    private String status;
+    private Long version;
+}
@@ -0,0 +1,11 @@
+package com.cinema.ticketsystem.exception;
+
+/**
+ * Thrown when a hold request would exceed one of the per-user hold quotas.
+ */
+public class HoldQuotaExceededException extends RuntimeException {
+    
+    public HoldQuotaExceededException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,11 @@
+package com.cinema.ticketsystem.exception;
+
+/**
+ * Thrown when a booking request targets a screening other than the one its queue token admits.
+ */
+public class QueueTokenMismatchException extends RuntimeException {
+    
+    public QueueTokenMismatchException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,21 @@
+package com.cinema.ticketsystem.exception;
+
+import com.cinema.ticketsystem.dto.SeatConflictDTO;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Thrown when one or more requested seats are already reserved or held.
+ * Carries every conflicting seat so the client can fix its selection in one go.
+ */
+@Getter
+public class SeatConflictException extends RuntimeException {
+    
+    private final List<SeatConflictDTO> conflicts;
+    
+    public SeatConflictException(List<SeatConflictDTO> conflicts) {
+        super("Some of the selected seats are no longer available (" + conflicts.size() + " conflicts)");
+        this.conflicts = conflicts;
+    }
+}
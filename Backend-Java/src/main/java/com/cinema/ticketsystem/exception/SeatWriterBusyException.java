@@ -0,0 +1,11 @@
+package com.cinema.ticketsystem.exception;
+
+/**
+ * Thrown when a screening's seat writer queue is full. The request was not applied and can be retried.
+ */
+public class SeatWriterBusyException extends RuntimeException {
+    
+    public SeatWriterBusyException(String message) {
+        super(message);
+    }
+}
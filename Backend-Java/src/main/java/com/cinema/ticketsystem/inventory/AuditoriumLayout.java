@@ -0,0 +1,76 @@
+package com.cinema.ticketsystem.inventory;
+
+/**
+ * Immutable seat layout of an auditorium: seat labels and the mapping between
+ * row-major seat indexes and (row, seat) positions, computed once per layout.
+ * Index = (row - 1) * seatsPerRow + (seat - 1), the same order as {@link ScreeningSeatState#getStatuses()}.
+ */
+public final class AuditoriumLayout {
+    
+    private final int rows;
+    private final int seatsPerRow;
+    private final String[] labels;
+    private final int[] rowOfIndex;
+    private final int[] seatOfIndex;
+    
+    AuditoriumLayout(int rows, int seatsPerRow) {
+        this.rows = rows;
+        this.seatsPerRow = seatsPerRow;
+        int size = rows * seatsPerRow;
+        this.labels = new String[size];
+        this.rowOfIndex = new int[size];
+        this.seatOfIndex = new int[size];
+        int index = 0;
+        for (int row = 1; row <= rows; row++) {
+            char rowLetter = (char) ('A' + row - 1);
+            for (int seat = 1; seat <= seatsPerRow; seat++) {
+                labels[index] = rowLetter + Integer.toString(seat);
+                rowOfIndex[index] = row;
+                seatOfIndex[index] = seat;
+                index++;
+            }
+        }
+    }
+    
+    public int getRows() {
+        return rows;
+    }
+    
+    public int getSeatsPerRow() {
+        return seatsPerRow;
+    }
+    
+    public int getSize() {
+        return labels.length;
+    }
+    
+    public boolean isValidSeat(int row, int seat) {
+        return row >= 1 && row <= rows && seat >= 1 && seat <= seatsPerRow;
+    }
+    
+    public int indexOf(int row, int seat) {
+        return (row - 1) * seatsPerRow + (seat - 1);
+    }
+    
+    public int rowAt(int index) {
+        return rowOfIndex[index];
+    }
+    
+    public int seatAt(int index) {
+        return seatOfIndex[index];
+    }
+    
+    public String labelAt(int index) {
+        return labels[index];
+    }
+    
+    /**
+     * Seat label such as "A1"; seats outside the layout get a label computed on the fly.
+     */
+    public String label(int row, int seat) {
+        if (!isValidSeat(row, seat)) {
+            return (char) ('A' + row - 1) + Integer.toString(seat);
+        }
+        return labels[indexOf(row, seat)];
+    }
+}
@@ -0,0 +1,29 @@
+package com.cinema.ticketsystem.inventory;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Caches one {@link AuditoriumLayout} per auditorium size. Layouts depend only on the
+ * number of rows and seats per row, so cinemas of the same size share one instance and
+ * a cinema whose dimensions change simply maps to another layout.
+ */
+@Component
+public class AuditoriumLayoutRegistry {
+    
+    private final Map<Long, AuditoriumLayout> layouts = new ConcurrentHashMap<>();
+    
+    public AuditoriumLayout get(int rows, int seatsPerRow) {
+        if (rows < 0 || seatsPerRow < 0) {
+            throw new IllegalArgumentException("Invalid auditorium size: " + rows + "x" + seatsPerRow);
+        }
+        long key = ((long) rows << 32) | seatsPerRow;
+        AuditoriumLayout layout = layouts.get(key);
+        if (layout != null) {
+            return layout;
+        }
+        return layouts.computeIfAbsent(key, k -> new AuditoriumLayout(rows, seatsPerRow));
+    }
+}
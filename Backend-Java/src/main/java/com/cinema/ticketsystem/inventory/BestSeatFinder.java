@@ -0,0 +1,192 @@
+package com.cinema.ticketsystem.inventory;
+
+import com.cinema.ticketsystem.dto.SeatPosition;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Picks the best seats for a party from per-row occupancy bitmasks.
+ * Free seats are scanned as runs, so each row costs O(words + runs) and the best
+ * block inside a run is found in O(1) by sliding it as close to the row centre as fits.
+ * Blocks are scored by distance from the preferred row band and from the row centre;
+ * when no row has a long enough run the party is split into as few blocks as possible.
+ */
+public final class BestSeatFinder {
+    
+    // One row outside the preferred band weighs as much as this many seats off-centre
+    private static final int ROW_WEIGHT = 4;
+    
+    private final long[] occupied;
+    private final int rows;
+    private final int seatsPerRow;
+    private final int wordsPerRow;
+    private final int bandFrom;
+    private final int bandTo;
+    
+    /**
+     * @param occupied reserved-or-held bits, {@code wordsPerRow} words per row, bit (seat - 1) per seat;
+     *                 the array is modified while splitting, so pass a copy
+     */
+    public BestSeatFinder(long[] occupied, int rows, int seatsPerRow, int bandFrom, int bandTo) {
+        this.occupied = occupied;
+        this.rows = rows;
+        this.seatsPerRow = seatsPerRow;
+        this.wordsPerRow = (seatsPerRow + 63) >>> 6;
+        this.bandFrom = Math.max(1, Math.min(bandFrom, bandTo));
+        this.bandTo = Math.min(rows, Math.max(bandFrom, bandTo));
+    }
+    
+    /**
+     * Default preferred band: the rows between 40% and 80% of the way back.
+     */
+    public static BestSeatFinder withDefaultBand(long[] occupied, int rows, int seatsPerRow) {
+        int from = Math.max(1, (int) Math.ceil(rows * 0.4));
+        int to = Math.max(from, (int) Math.ceil(rows * 0.8));
+        return new BestSeatFinder(occupied, rows, seatsPerRow, from, to);
+    }
+    
+    /**
+     * Returns the chosen seats, or an empty list when fewer than {@code partySize} seats are free.
+     */
+    public Result find(int partySize) {
+        Block block = bestBlock(partySize);
+        if (block != null) {
+            return new Result(block.positions(), true);
+        }
+        
+        // Split fallback: repeatedly take the best block of the longest size still available
+        List<SeatPosition> seats = new ArrayList<>(partySize);
+        int remaining = partySize;
+        while (remaining > 0) {
+            int size = Math.min(remaining, longestRun());
+            if (size == 0) {
+                return new Result(Collections.emptyList(), false);
+            }
+            Block next = bestBlock(size);
+            occupy(next);
+            seats.addAll(next.positions());
+            remaining -= size;
+        }
+        return new Result(seats, false);
+    }
+    
+    private Block bestBlock(int size) {
+        Block best = null;
+        int rowCentreTwice = seatsPerRow + 1;
+        for (int row = 1; row <= rows; row++) {
+            int rowPenalty = row < bandFrom ? bandFrom - row : row > bandTo ? row - bandTo : 0;
+            // Every block in this row scores at least the row penalty
+            if (best != null && rowPenalty * ROW_WEIGHT * 2 >= best.score) {
+                continue;
+            }
+            int seat = nextFree(row, 1);
+            while (seat <= seatsPerRow) {
+                int runEnd = nextOccupied(row, seat);
+                int runLength = runEnd - seat;
+                if (runLength >= size) {
+                    // Centre the block in the row as far as the run allows; scores are doubled to stay integral
+                    int idealStart = (rowCentreTwice - size + 1) / 2;
+                    int start = Math.max(seat, Math.min(idealStart, runEnd - size));
+                    int offCentre = Math.abs(2 * start + size - 1 - rowCentreTwice);
+                    int score = rowPenalty * ROW_WEIGHT * 2 + offCentre;
+                    if (best == null || score < best.score) {
+                        best = new Block(row, start, size, score);
+                    }
+                }
+                seat = nextFree(row, runEnd);
+            }
+        }
+        return best;
+    }
+    
+    private int longestRun() {
+        int longest = 0;
+        for (int row = 1; row <= rows; row++) {
+            int seat = nextFree(row, 1);
+            while (seat <= seatsPerRow) {
+                int runEnd = nextOccupied(row, seat);
+                longest = Math.max(longest, runEnd - seat);
+                seat = nextFree(row, runEnd);
+            }
+        }
+        return longest;
+    }
+    
+    private void occupy(Block block) {
+        int base = (block.row - 1) * wordsPerRow;
+        for (int seat = block.start; seat < block.start + block.size; seat++) {
+            occupied[base + ((seat - 1) >>> 6)] |= 1L << (seat - 1);
+        }
+    }
+    
+    /** First free seat at or after {@code from}, or seatsPerRow + 1. */
+    private int nextFree(int row, int from) {
+        return scan(row, from, true);
+    }
+    
+    /** First occupied seat at or after {@code from}, or seatsPerRow + 1. */
+    private int nextOccupied(int row, int from) {
+        return scan(row, from, false);
+    }
+    
+    private int scan(int row, int from, boolean free) {
+        if (from > seatsPerRow) {
+            return seatsPerRow + 1;
+        }
+        int base = (row - 1) * wordsPerRow;
+        int index = from - 1;
+        int word = index >>> 6;
+        long bits = (free ? ~occupied[base + word] : occupied[base + word]) & (-1L << index);
+        while (true) {
+            if (bits != 0) {
+                return Math.min(seatsPerRow + 1, (word << 6) + Long.numberOfTrailingZeros(bits) + 1);
+            }
+            if (++word == wordsPerRow) {
+                return seatsPerRow + 1;
+            }
+            bits = free ? ~occupied[base + word] : occupied[base + word];
+        }
+    }
+    
+    public static final class Result {
+        private final List<SeatPosition> seats;
+        private final boolean contiguous;
+        
+        private Result(List<SeatPosition> seats, boolean contiguous) {
+            this.seats = seats;
+            this.contiguous = contiguous;
+        }
+        
+        public List<SeatPosition> getSeats() {
+            return seats;
+        }
+        
+        public boolean isContiguous() {
+            return contiguous;
+        }
+    }
+    
+    private static final class Block {
+        private final int row;
+        private final int start;
+        private final int size;
+        private final int score;
+        
+        private Block(int row, int start, int size, int score) {
+            this.row = row;
+            this.start = start;
+            this.size = size;
+            this.score = score;
+        }
+        
+        private List<SeatPosition> positions() {
+            List<SeatPosition> positions = new ArrayList<>(size);
+            for (int seat = start; seat < start + size; seat++) {
+                positions.add(new SeatPosition(row, seat));
+            }
+            return positions;
+        }
+    }
+}
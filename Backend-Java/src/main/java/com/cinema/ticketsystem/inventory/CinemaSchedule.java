@@ -0,0 +1,137 @@
+package com.cinema.ticketsystem.inventory;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+
+/**
+ * Occupied time slots of one cinema, ordered by start time.
+ * A slot runs from the screening start to the end of the film plus the cleaning buffer.
+ * Slots of a valid schedule never overlap, so ordering by start also orders them by end and
+ * overlap and free-slot lookups only need to look at the neighbours of the probed time.
+ * Slots are also indexed by screening id, so replacing or removing one is O(log n).
+ */
+public class CinemaSchedule {
+
+    private static final Comparator<Slot> ORDER = Comparator
+            .comparing(Slot::start)
+            .thenComparing(Slot::screeningId);
+
+    private final NavigableSet<Slot> slots;
+    private final Map<Long, Slot> byScreening;
+
+    public CinemaSchedule() {
+        this.slots = new TreeSet<>(ORDER);
+        this.byScreening = new HashMap<>();
+    }
+
+    private CinemaSchedule(CinemaSchedule source) {
+        this.slots = new TreeSet<>(source.slots);
+        this.byScreening = new HashMap<>(source.byScreening);
+    }
+
+    public synchronized CinemaSchedule copy() {
+        return new CinemaSchedule(this);
+    }
+
+    public synchronized int size() {
+        return slots.size();
+    }
+
+    public synchronized void add(Long screeningId, LocalDateTime start, LocalDateTime end) {
+        put(new Slot(screeningId, start, end));
+    }
+
+    public synchronized void remove(Long screeningId) {
+        Slot slot = byScreening.remove(screeningId);
+        if (slot != null) {
+            slots.remove(slot);
+        }
+    }
+
+    /**
+     * Adds the slot only if it overlaps nothing, otherwise returns the overlapping slots.
+     * A slot already present for the same screening is replaced rather than reported.
+     */
+    public synchronized List<Slot> addIfFree(Long screeningId, LocalDateTime start, LocalDateTime end) {
+        List<Slot> conflicts = findOverlapping(start, end);
+        conflicts.removeIf(slot -> slot.screeningId().equals(screeningId));
+        if (conflicts.isEmpty()) {
+            put(new Slot(screeningId, start, end));
+        }
+        return conflicts;
+    }
+
+    /**
+     * Returns every slot overlapping [start, end).
+     */
+    public synchronized List<Slot> findOverlapping(LocalDateTime start, LocalDateTime end) {
+        List<Slot> overlapping = new ArrayList<>();
+        Slot previous = slots.floor(probe(start));
+        NavigableSet<Slot> candidates = previous != null ? slots.tailSet(previous, true) : slots;
+        for (Slot slot : candidates) {
+            if (!slot.start().isBefore(end)) {
+                break;
+            }
+            if (slot.end().isAfter(start)) {
+                overlapping.add(slot);
+            }
+        }
+        return overlapping;
+    }
+
+    /**
+     * Returns the earliest start at or after the given time where a slot of the given length fits.
+     */
+    public synchronized LocalDateTime findNextFree(LocalDateTime from, long lengthMinutes) {
+        LocalDateTime candidate = from;
+        Slot previous = slots.floor(probe(from));
+        if (previous != null && previous.end().isAfter(candidate)) {
+            candidate = previous.end();
+        }
+        NavigableSet<Slot> following = previous != null ? slots.tailSet(previous, false) : slots;
+        for (Slot slot : following) {
+            if (!slot.start().isBefore(candidate.plusMinutes(lengthMinutes))) {
+                break;
+            }
+            if (slot.end().isAfter(candidate)) {
+                candidate = slot.end();
+            }
+        }
+        return candidate;
+    }
+
+    /**
+     * Drops slots that ended before the cutoff.
+     */
+    public synchronized void pruneBefore(LocalDateTime cutoff) {
+        slots.removeIf(slot -> {
+            boolean ended = slot.end().isBefore(cutoff);
+            if (ended) {
+                byScreening.remove(slot.screeningId());
+            }
+            return ended;
+        });
+    }
+
+    private void put(Slot slot) {
+        Slot previous = byScreening.put(slot.screeningId(), slot);
+        if (previous != null) {
+            slots.remove(previous);
+        }
+        slots.add(slot);
+    }
+
+    // Sorts after every slot starting at the same time
+    private static Slot probe(LocalDateTime time) {
+        return new Slot(Long.MAX_VALUE, time, time);
+    }
+
+    public record Slot(Long screeningId, LocalDateTime start, LocalDateTime end) {
+    }
+}
@@ -0,0 +1,120 @@
+package com.cinema.ticketsystem.inventory;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hierarchical timing wheel with 64 slots per level.
+ * Level 0 slots are one tick wide, each higher level is 64 times coarser; entries
+ * cascade down a level when their slot comes round, so scheduling and expiry are
+ * O(1) per entry regardless of how many deadlines are pending.
+ * Not thread-safe on its own; callers synchronize around it.
+ */
+public class HierarchicalTimingWheel<T> {
+
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+
+    private final long tickMillis;
+    private final List<List<Entry<T>>> slots = new ArrayList<>(LEVELS * SLOTS);
+    private final List<Entry<T>> overflow = new ArrayList<>();
+    private long currentTick;
+    private int size;
+
+    public HierarchicalTimingWheel(long tickMillis, long startMillis) {
+        this.tickMillis = tickMillis;
+        this.currentTick = startMillis / tickMillis;
+        for (int i = 0; i < LEVELS * SLOTS; i++) {
+            slots.add(new ArrayList<>());
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Schedules an item. Deadlines that are already due are returned by the next advance.
+     */
+    public void schedule(T item, long deadlineMillis) {
+        long deadlineTick = (deadlineMillis + tickMillis - 1) / tickMillis;
+        List<Entry<T>> due = new ArrayList<>(1);
+        insert(new Entry<>(item, deadlineTick), due);
+        slot(0, currentTick).addAll(due);
+        size++;
+    }
+
+    /**
+     * Moves the wheel forward to the given time and returns every item whose deadline has passed.
+     */
+    public List<T> advance(long nowMillis) {
+        long targetTick = nowMillis / tickMillis;
+        List<Entry<T>> due = new ArrayList<>(slot(0, currentTick));
+        slot(0, currentTick).clear();
+
+        while (currentTick < targetTick) {
+            currentTick++;
+            for (int level = LEVELS - 1; level >= 1; level--) {
+                if ((currentTick & ((1L << (SLOT_BITS * level)) - 1)) == 0) {
+                    cascade(level, due);
+                }
+            }
+            if ((currentTick & ((1L << (SLOT_BITS * LEVELS)) - 1)) == 0 && !overflow.isEmpty()) {
+                List<Entry<T>> pending = new ArrayList<>(overflow);
+                overflow.clear();
+                pending.forEach(entry -> insert(entry, due));
+            }
+            List<Entry<T>> expired = slot(0, currentTick);
+            due.addAll(expired);
+            expired.clear();
+        }
+
+        List<T> items = new ArrayList<>(due.size());
+        for (Entry<T> entry : due) {
+            items.add(entry.item);
+        }
+        size -= items.size();
+        return items;
+    }
+
+    private void cascade(int level, List<Entry<T>> due) {
+        List<Entry<T>> bucket = slot(level, currentTick >> (SLOT_BITS * level));
+        if (bucket.isEmpty()) {
+            return;
+        }
+        List<Entry<T>> pending = new ArrayList<>(bucket);
+        bucket.clear();
+        pending.forEach(entry -> insert(entry, due));
+    }
+
+    private void insert(Entry<T> entry, List<Entry<T>> due) {
+        long delta = entry.deadlineTick - currentTick;
+        if (delta <= 0) {
+            due.add(entry);
+            return;
+        }
+        for (int level = 0; level < LEVELS; level++) {
+            if (delta < (1L << (SLOT_BITS * (level + 1)))) {
+                slot(level, entry.deadlineTick >> (SLOT_BITS * level)).add(entry);
+                return;
+            }
+        }
+        overflow.add(entry);
+    }
+
+    private List<Entry<T>> slot(int level, long position) {
+        return slots.get(level * SLOTS + (int) (position & MASK));
+    }
+
+    private static final class Entry<T> {
+        private final T item;
+        private final long deadlineTick;
+
+        private Entry(T item, long deadlineTick) {
+            this.item = item;
+            this.deadlineTick = deadlineTick;
+        }
+    }
+}
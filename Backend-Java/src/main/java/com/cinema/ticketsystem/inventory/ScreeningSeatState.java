@@ -0,0 +1,267 @@
+package com.cinema.ticketsystem.inventory;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory seat inventory of a single screening.
+ * Reserved and held seats are kept in two primitive bitsets, one padded
+ * group of 64-bit words per row, so availability reads never touch the database.
+ */
+public class ScreeningSeatState {
+
+    public static final byte AVAILABLE = 0;
+    public static final byte HELD = 1;
+    public static final byte RESERVED = 2;
+
+    // Distinguishes reloads of the same screening, whose versions restart at zero
+    private static final AtomicLong GENERATIONS = new AtomicLong(System.currentTimeMillis());
+
+    private final Long screeningId;
+    private final Long cinemaId;
+    private final String cinemaName;
+    private final Long movieId;
+    private final String movieTitle;
+    private final LocalDateTime startDateTime;
+    private final AuditoriumLayout layout;
+    private final int rows;
+    private final int seatsPerRow;
+    private final int wordsPerRow;
+    private final long generation = GENERATIONS.incrementAndGet();
+
+    private final long[] reserved;
+    private final long[] held;
+    private int reservedCount;
+    private int heldCount;
+    private long version;
+
+    public ScreeningSeatState(Long screeningId, Long cinemaId, String cinemaName, Long movieId,
+                              String movieTitle, LocalDateTime startDateTime, AuditoriumLayout layout) {
+        this.screeningId = screeningId;
+        this.cinemaId = cinemaId;
+        this.cinemaName = cinemaName;
+        this.movieId = movieId;
+        this.movieTitle = movieTitle;
+        this.startDateTime = startDateTime;
+        this.layout = layout;
+        this.rows = layout.getRows();
+        this.seatsPerRow = layout.getSeatsPerRow();
+        this.wordsPerRow = (seatsPerRow + 63) >>> 6;
+        this.reserved = new long[rows * wordsPerRow];
+        this.held = new long[rows * wordsPerRow];
+    }
+
+    public Long getScreeningId() {
+        return screeningId;
+    }
+
+    public Long getCinemaId() {
+        return cinemaId;
+    }
+
+    public String getCinemaName() {
+        return cinemaName;
+    }
+
+    public Long getMovieId() {
+        return movieId;
+    }
+
+    public String getMovieTitle() {
+        return movieTitle;
+    }
+
+    public LocalDateTime getStartDateTime() {
+        return startDateTime;
+    }
+
+    public AuditoriumLayout getLayout() {
+        return layout;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getSeatsPerRow() {
+        return seatsPerRow;
+    }
+
+    public int getTotalSeats() {
+        return rows * seatsPerRow;
+    }
+
+    public static String statusName(byte status) {
+        switch (status) {
+            case RESERVED:
+                return "RESERVED";
+            case HELD:
+                return "HELD";
+            default:
+                return "AVAILABLE";
+        }
+    }
+
+    public boolean isValidSeat(int row, int seat) {
+        return row >= 1 && row <= rows && seat >= 1 && seat <= seatsPerRow;
+    }
+
+    public synchronized boolean isReserved(int row, int seat) {
+        return isSet(reserved, row, seat);
+    }
+
+    public synchronized boolean isHeld(int row, int seat) {
+        return isSet(held, row, seat);
+    }
+
+    public synchronized byte getStatus(int row, int seat) {
+        if (isSet(reserved, row, seat)) {
+            return RESERVED;
+        }
+        return isSet(held, row, seat) ? HELD : AVAILABLE;
+    }
+
+    /**
+     * Monotonically increasing counter, bumped once per applied change.
+     */
+    public synchronized long getVersion() {
+        return version;
+    }
+
+    public synchronized long incrementVersion() {
+        return ++version;
+    }
+
+    /**
+     * Opaque tag that changes whenever any seat of this screening changes, suitable for an ETag.
+     * Edits to the screening, movie or cinema must evict the state, so the reload gets a new generation.
+     */
+    public synchronized String getVersionTag() {
+        return screeningId + "-" + generation + "-" + version;
+    }
+
+    public synchronized int getReservedCount() {
+        return reservedCount;
+    }
+
+    public synchronized int getHeldCount() {
+        return heldCount;
+    }
+
+    public synchronized int getAvailableCount() {
+        return getTotalSeats() - reservedCount - heldCount;
+    }
+
+    /**
+     * Returns a consistent copy of every seat status in row-major order,
+     * index = (row - 1) * seatsPerRow + (seat - 1).
+     */
+    public synchronized byte[] getStatuses() {
+        byte[] statuses = new byte[getTotalSeats()];
+        int index = 0;
+        for (int row = 1; row <= rows; row++) {
+            for (int seat = 1; seat <= seatsPerRow; seat++) {
+                if (isSet(reserved, row, seat)) {
+                    statuses[index] = RESERVED;
+                } else if (isSet(held, row, seat)) {
+                    statuses[index] = HELD;
+                }
+                index++;
+            }
+        }
+        return statuses;
+    }
+
+    /**
+     * Returns every seat status packed at 2 bits per seat (4 seats per byte, lowest bits first)
+     * in the same row-major order as {@link #getStatuses()}.
+     */
+    public synchronized byte[] getPackedStatuses() {
+        byte[] packed = new byte[(getTotalSeats() + 3) >>> 2];
+        int index = 0;
+        for (int row = 1; row <= rows; row++) {
+            for (int seat = 1; seat <= seatsPerRow; seat++) {
+                int status = isSet(reserved, row, seat) ? RESERVED : isSet(held, row, seat) ? HELD : AVAILABLE;
+                packed[index >>> 2] |= (byte) (status << ((index & 3) << 1));
+                index++;
+            }
+        }
+        return packed;
+    }
+
+    /**
+     * Returns a copy of the reserved-or-held bits, (seatsPerRow + 63) / 64 words per row,
+     * with seat s of a row at bit (s - 1).
+     */
+    public synchronized long[] getOccupiedWords() {
+        long[] occupied = new long[reserved.length];
+        for (int i = 0; i < occupied.length; i++) {
+            occupied[i] = reserved[i] | held[i];
+        }
+        return occupied;
+    }
+
+    public synchronized void markHeld(int row, int seat) {
+        if (!isSet(reserved, row, seat) && set(held, row, seat)) {
+            heldCount++;
+        }
+    }
+
+    public synchronized void clearHeld(int row, int seat) {
+        if (clear(held, row, seat)) {
+            heldCount--;
+        }
+    }
+
+    public synchronized void markReserved(int row, int seat) {
+        if (clear(held, row, seat)) {
+            heldCount--;
+        }
+        if (set(reserved, row, seat)) {
+            reservedCount++;
+        }
+    }
+
+    public synchronized void clearReserved(int row, int seat) {
+        if (clear(reserved, row, seat)) {
+            reservedCount--;
+        }
+    }
+
+    private int wordIndex(int row, int seat) {
+        return (row - 1) * wordsPerRow + ((seat - 1) >>> 6);
+    }
+
+    private boolean isSet(long[] bits, int row, int seat) {
+        if (!isValidSeat(row, seat)) {
+            return false;
+        }
+        return (bits[wordIndex(row, seat)] & (1L << (seat - 1))) != 0;
+    }
+
+    private boolean set(long[] bits, int row, int seat) {
+        if (!isValidSeat(row, seat)) {
+            return false;
+        }
+        int word = wordIndex(row, seat);
+        long mask = 1L << (seat - 1);
+        if ((bits[word] & mask) != 0) {
+            return false;
+        }
+        bits[word] |= mask;
+        return true;
+    }
+
+    private boolean clear(long[] bits, int row, int seat) {
+        if (!isValidSeat(row, seat)) {
+            return false;
+        }
+        int word = wordIndex(row, seat);
+        long mask = 1L << (seat - 1);
+        if ((bits[word] & mask) == 0) {
+            return false;
+        }
+        bits[word] &= ~mask;
+        return true;
+    }
+}
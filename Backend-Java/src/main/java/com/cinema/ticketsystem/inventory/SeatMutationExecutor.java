@@ -0,0 +1,111 @@
+package com.cinema.ticketsystem.inventory;
+
+import com.cinema.ticketsystem.exception.SeatWriterBusyException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Runs seat mutations (hold, release, reserve) on a single writer thread per screening.
+ * Screenings are sharded over a fixed set of single-threaded executors, so all writes
+ * for one screening are serialized in memory while different screenings run in parallel.
+ */
+@Slf4j
+@Component
+public class SeatMutationExecutor implements DisposableBean {
+
+    private static final ThreadLocal<Integer> CURRENT_SHARD = new ThreadLocal<>();
+
+    private final ThreadPoolExecutor[] shards;
+
+    public SeatMutationExecutor(@Value("${app.seats.writer-threads:0}") int writerThreads,
+                                @Value("${app.seats.writer-queue-capacity:10000}") int queueCapacity) {
+        int count = writerThreads > 0 ? writerThreads : Runtime.getRuntime().availableProcessors();
+        this.shards = new ThreadPoolExecutor[count];
+        for (int i = 0; i < count; i++) {
+            int shard = i;
+            shards[i] = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                    new LinkedBlockingQueue<>(queueCapacity),
+                    task -> {
+                        Thread thread = new Thread(() -> {
+                            CURRENT_SHARD.set(shard);
+                            task.run();
+                        }, "seat-writer-" + shard);
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+        }
+        log.info("Seat mutation executor started with {} writer threads", count);
+    }
+
+    /**
+     * Runs the mutation on the screening's writer thread and waits for its result.
+     * Calls made from that writer thread run inline.
+     */
+    public <T> T execute(Long screeningId, Supplier<T> mutation) {
+        if (screeningId == null) {
+            throw new IllegalArgumentException("Screening ID cannot be null");
+        }
+        int shard = Math.floorMod(Long.hashCode(screeningId), shards.length);
+        if (Integer.valueOf(shard).equals(CURRENT_SHARD.get())) {
+            return mutation.get();
+        }
+
+        Future<T> result;
+        try {
+            result = shards[shard].submit(mutation::get);
+        } catch (RejectedExecutionException e) {
+            throw new SeatWriterBusyException("Too many seat requests for this screening. Please try again.");
+        }
+
+        try {
+            return result.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new RuntimeException(cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for seat update", e);
+        }
+    }
+
+    /**
+     * Queues the mutation on the screening's writer thread without waiting for it.
+     * A full writer queue fails the returned future instead of throwing.
+     */
+    public <T> CompletableFuture<T> submit(Long screeningId, Supplier<T> mutation) {
+        if (screeningId == null) {
+            throw new IllegalArgumentException("Screening ID cannot be null");
+        }
+        int shard = Math.floorMod(Long.hashCode(screeningId), shards.length);
+        try {
+            return CompletableFuture.supplyAsync(mutation, shards[shard]);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(
+                    new SeatWriterBusyException("Too many seat requests for this screening. Please try again."));
+        }
+    }
+
+    @Override
+    public void destroy() {
+        for (ThreadPoolExecutor shard : shards) {
+            shard.shutdown();
+        }
+    }
+}
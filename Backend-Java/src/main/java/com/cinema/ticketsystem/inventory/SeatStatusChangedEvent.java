@@ -0,0 +1,17 @@
+package com.cinema.ticketsystem.inventory;
+
+import com.cinema.ticketsystem.dto.SeatStatusDeltaDTO;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Published after a committed seat change has been applied to a screening's inventory.
+ */
+@Getter
+@AllArgsConstructor
+public class SeatStatusChangedEvent {
+    private final Long screeningId;
+    private final List<SeatStatusDeltaDTO> deltas;
+}
@@ -0,0 +1,201 @@
+package com.cinema.ticketsystem.inventory;
+
+import com.cinema.ticketsystem.dto.ShowtimeDTO;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Showtimes of one day, indexed by cinema and by movie.
+ * Readers get immutable lists from copy-on-write maps, so serving a day takes no lock;
+ * only the seats-left count of an entry is updated in place. Changes are merged into the
+ * sorted lists they touch rather than rebuilding the day, and a batch is merged in one pass.
+ */
+public class ShowtimeDay {
+
+    private static final Comparator<Showtime> ORDER = Comparator
+            .comparing(Showtime::getStartDateTime)
+            .thenComparing(Showtime::getScreeningId);
+
+    private final LocalDate date;
+    private final Map<Long, Showtime> byScreening = new HashMap<>();
+    private volatile List<Showtime> all = List.of();
+    private volatile Map<Long, List<Showtime>> byCinema = Map.of();
+    private volatile Map<Long, List<Showtime>> byMovie = Map.of();
+
+    public ShowtimeDay(LocalDate date, List<Showtime> showtimes) {
+        this.date = date;
+        putAll(showtimes);
+    }
+
+    public LocalDate getDate() {
+        return date;
+    }
+
+    public List<Showtime> getAll() {
+        return all;
+    }
+
+    public List<Showtime> getByCinema(Long cinemaId) {
+        return byCinema.getOrDefault(cinemaId, List.of());
+    }
+
+    public List<Showtime> getByMovie(Long movieId) {
+        return byMovie.getOrDefault(movieId, List.of());
+    }
+
+    public synchronized Showtime get(Long screeningId) {
+        return byScreening.get(screeningId);
+    }
+
+    /**
+     * Adds or replaces the showtime of a screening.
+     */
+    public synchronized void put(Showtime showtime) {
+        putAll(List.of(showtime));
+    }
+
+    /**
+     * Adds or replaces several showtimes with one merge per touched list.
+     */
+    public synchronized void putAll(Collection<Showtime> showtimes) {
+        List<Showtime> replaced = new ArrayList<>();
+        for (Showtime showtime : showtimes) {
+            Showtime previous = byScreening.put(showtime.getScreeningId(), showtime);
+            if (previous != null) {
+                replaced.add(previous);
+            }
+        }
+        // A screening listed twice keeps only its last entry
+        List<Showtime> added = new ArrayList<>(showtimes.size());
+        for (Showtime showtime : showtimes) {
+            if (byScreening.get(showtime.getScreeningId()) == showtime) {
+                added.add(showtime);
+            }
+        }
+        added.sort(ORDER);
+        update(replaced, added);
+    }
+
+    public synchronized void remove(Long screeningId) {
+        Showtime previous = byScreening.remove(screeningId);
+        if (previous != null) {
+            update(List.of(previous), List.of());
+        }
+    }
+
+    // The additions must already be sorted
+    private void update(List<Showtime> removed, List<Showtime> added) {
+        this.byCinema = mergeIndex(byCinema, removed, added, Showtime::getCinemaId);
+        this.byMovie = mergeIndex(byMovie, removed, added, Showtime::getMovieId);
+        this.all = merge(all, removed, added);
+    }
+
+    private static Map<Long, List<Showtime>> mergeIndex(Map<Long, List<Showtime>> index, List<Showtime> removed,
+                                                        List<Showtime> added, Function<Showtime, Long> key) {
+        Map<Long, List<Showtime>> removedByKey = new HashMap<>();
+        Map<Long, List<Showtime>> addedByKey = new HashMap<>();
+        removed.forEach(showtime -> removedByKey.computeIfAbsent(key.apply(showtime), id -> new ArrayList<>()).add(showtime));
+        added.forEach(showtime -> addedByKey.computeIfAbsent(key.apply(showtime), id -> new ArrayList<>()).add(showtime));
+        Set<Long> touched = new HashSet<>(removedByKey.keySet());
+        touched.addAll(addedByKey.keySet());
+
+        Map<Long, List<Showtime>> updated = new HashMap<>(index);
+        for (Long id : touched) {
+            List<Showtime> merged = merge(index.getOrDefault(id, List.of()),
+                    removedByKey.getOrDefault(id, List.of()), addedByKey.getOrDefault(id, List.of()));
+            if (merged.isEmpty()) {
+                updated.remove(id);
+            } else {
+                updated.put(id, merged);
+            }
+        }
+        return updated;
+    }
+
+    // One linear pass over a sorted list, dropping the removed entries and inserting the sorted additions
+    private static List<Showtime> merge(List<Showtime> sorted, List<Showtime> removed, List<Showtime> added) {
+        Set<Showtime> dropped = Collections.newSetFromMap(new IdentityHashMap<>());
+        dropped.addAll(removed);
+        List<Showtime> merged = new ArrayList<>(sorted.size() + added.size());
+        int next = 0;
+        for (Showtime showtime : sorted) {
+            if (dropped.contains(showtime)) {
+                continue;
+            }
+            while (next < added.size() && ORDER.compare(added.get(next), showtime) < 0) {
+                merged.add(added.get(next++));
+            }
+            merged.add(showtime);
+        }
+        while (next < added.size()) {
+            merged.add(added.get(next++));
+        }
+        return Collections.unmodifiableList(merged);
+    }
+
+    /**
+     * Compact showtime entry; everything but the seats-left count is fixed.
+     */
+    public static class Showtime {
+        private final Long screeningId;
+        private final Long cinemaId;
+        private final String cinemaName;
+        private final Long movieId;
+        private final String movieTitle;
+        private final LocalDateTime startDateTime;
+        private final BigDecimal ticketPrice;
+        private final int totalSeats;
+        private volatile int seatsLeft;
+
+        public Showtime(Long screeningId, Long cinemaId, String cinemaName, Long movieId, String movieTitle,
+                        LocalDateTime startDateTime, BigDecimal ticketPrice, int totalSeats, int seatsLeft) {
+            this.screeningId = screeningId;
+            this.cinemaId = cinemaId;
+            this.cinemaName = cinemaName;
+            this.movieId = movieId;
+            this.movieTitle = movieTitle;
+            this.startDateTime = startDateTime;
+            this.ticketPrice = ticketPrice;
+            this.totalSeats = totalSeats;
+            this.seatsLeft = seatsLeft;
+        }
+
+        public Long getScreeningId() {
+            return screeningId;
+        }
+
+        public Long getCinemaId() {
+            return cinemaId;
+        }
+
+        public Long getMovieId() {
+            return movieId;
+        }
+
+        public LocalDateTime getStartDateTime() {
+            return startDateTime;
+        }
+
+        public void setSeatsLeft(int seatsLeft) {
+            this.seatsLeft = seatsLeft;
+        }
+
+        public ShowtimeDTO toDTO() {
+            return new ShowtimeDTO(screeningId, cinemaId, cinemaName, movieId, movieTitle,
+                    startDateTime, ticketPrice, totalSeats, seatsLeft);
+        }
+    }
+}
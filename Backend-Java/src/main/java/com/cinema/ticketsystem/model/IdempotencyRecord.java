@@ -0,0 +1,42 @@
+package com.cinema.ticketsystem.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "idempotency_records", indexes = {
+    @Index(name = "idx_idempotency_created_at", columnList = "created_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class IdempotencyRecord {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "idempotency_record_seq")
+    @SequenceGenerator(name = "idempotency_record_seq", sequenceName = "idempotency_record_seq", allocationSize = 50)
+    private Long id;
+    
+    // User id, operation and client key, so keys from different users never collide
+    @Column(nullable = false, unique = true, length = 400)
+    private String scopedKey;
+    
+    @Column(nullable = false, length = 64)
+    private String requestHash;
+    
+    @Column(nullable = false)
+    private Integer statusCode;
+    
+    @Lob
+    @Column(columnDefinition = "TEXT")
+    private String responseBody;
+    
+    @CreationTimestamp
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+}
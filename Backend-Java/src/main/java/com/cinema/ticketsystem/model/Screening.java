@@ -6,6 +6,7 @@ import jakarta.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.CreationTimestamp;
 
 import java.math.BigDecimal;
@@ -14,14 +15,19 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "screenings")
+@Table(name = "screenings", indexes = {
+    @Index(name = "idx_screening_start_id", columnList = "start_date_time, id"),
+    @Index(name = "idx_screening_cinema_start", columnList = "cinema_id, start_date_time, id"),
+    @Index(name = "idx_screening_movie_start", columnList = "movie_id, start_date_time, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Screening {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "screening_seq")
+    @SequenceGenerator(name = "screening_seq", sequenceName = "screening_seq", allocationSize = 50)
     private Long id;
     
     @ManyToOne(fetch = FetchType.LAZY)
@@ -41,6 +47,15 @@ public class Screening {
     @Column(nullable = false, precision = 10, scale = 2)
     private BigDecimal ticketPrice;
     
+    // Maintained by SQL deltas alongside reservation and hold writes, see SeatCounterService
+    @Column(nullable = false)
+    @ColumnDefault("0")
+    private Integer reservedSeats = 0;
+    
+    @Column(nullable = false)
+    @ColumnDefault("0")
+    private Integer heldSeats = 0;
+    
     @CreationTimestamp
     @Column(nullable = false, updatable = false)
     private LocalDateTime createdAt;
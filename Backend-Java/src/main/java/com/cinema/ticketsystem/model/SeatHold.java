@@ -13,6 +13,8 @@ import java.time.LocalDateTime;
 @Entity
 @Table(name = "seat_holds", uniqueConstraints = {
     @UniqueConstraint(columnNames = {"screening_id", "row_number", "seat_number"})
+}, indexes = {
+    @Index(name = "idx_seat_hold_screening_active_expiry", columnList = "screening_id, is_active, expires_at")
 })
 @Data
 @NoArgsConstructor
@@ -20,7 +22,8 @@ import java.time.LocalDateTime;
 public class SeatHold {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "seat_hold_seq")
+    @SequenceGenerator(name = "seat_hold_seq", sequenceName = "seat_hold_seq", allocationSize = 50)
     private Long id;
     
     @ManyToOne(fetch = FetchType.LAZY)
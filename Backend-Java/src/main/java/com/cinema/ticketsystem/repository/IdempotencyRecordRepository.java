@@ -0,0 +1,20 @@
+package com.cinema.ticketsystem.repository;
+
+import com.cinema.ticketsystem.model.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, Long> {
+    
+    Optional<IdempotencyRecord> findByScopedKey(String scopedKey);
+    
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord ir WHERE ir.createdAt < :cutoff")
+    int deleteCreatedBefore(LocalDateTime cutoff);
+}
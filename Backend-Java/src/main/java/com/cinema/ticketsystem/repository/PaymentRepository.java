@@ -1,7 +1,9 @@
 package com.cinema.ticketsystem.repository;
 
 import com.cinema.ticketsystem.model.Payment;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
@@ -12,6 +14,7 @@ import java.util.Optional;
 @Repository
 public interface PaymentRepository extends JpaRepository<Payment, Long> {
     
+    @EntityGraph(attributePaths = {"reservation", "reservation.screening", "reservation.screening.movie"})
     List<Payment> findByUserId(Long userId);
     
     Optional<Payment> findByReservationId(Long reservationId);
@@ -27,4 +30,20 @@ public interface PaymentRepository extends JpaRepository<Payment, Long> {
     Optional<java.math.BigDecimal> getTotalRevenueBetween(LocalDateTime startDate, LocalDateTime endDate);
     
     Optional<Payment> findByTransactionId(String transactionId);
+    
+    // Set-based deletes, run child-first before the owning rows are removed
+    @Modifying
+    @Query("DELETE FROM Payment p WHERE p.reservation.id IN " +
+           "(SELECT r.id FROM Reservation r WHERE r.screening.id = :screeningId)")
+    int deleteAllForScreening(Long screeningId);
+    
+    @Modifying
+    @Query("DELETE FROM Payment p WHERE p.reservation.id IN " +
+           "(SELECT r.id FROM Reservation r WHERE r.user.id = :userId AND r.screening.id = :screeningId)")
+    int deleteAllForUserAndScreening(Long userId, Long screeningId);
+    
+    @Modifying
+    @Query("DELETE FROM Payment p WHERE p.user.id = :userId OR p.reservation.id IN " +
+           "(SELECT r.id FROM Reservation r WHERE r.user.id = :userId)")
+    int deleteAllForUser(Long userId);
 }
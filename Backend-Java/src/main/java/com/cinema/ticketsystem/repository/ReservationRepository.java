@@ -1,7 +1,9 @@
 package com.cinema.ticketsystem.repository;
 
 import com.cinema.ticketsystem.model.Reservation;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
@@ -11,13 +13,36 @@ import java.util.Optional;
 
 @Repository
 public interface ReservationRepository extends JpaRepository<Reservation, Long> {
+    @EntityGraph(attributePaths = {"screening", "screening.movie", "screening.cinema"})
     List<Reservation> findByUserIdOrderByScreening_StartDateTimeAsc(Long userId);
     List<Reservation> findByScreeningId(Long screeningId);
     Optional<Reservation> findByUserIdAndScreeningIdAndRowAndSeat(Long userId, Long screeningId, Integer row, Integer seat);
     Boolean existsByScreeningIdAndRowAndSeat(Long screeningId, Integer row, Integer seat);
     
+    @Query("SELECT r.row, r.seat FROM Reservation r WHERE r.screening.id = :screeningId")
+    List<Object[]> findSeatPositionsByScreeningId(Long screeningId);
+    
     @Query("SELECT DATE(r.createdAt) as date, COUNT(r) as count FROM Reservation r " +
            "WHERE r.createdAt BETWEEN :startDate AND :endDate " +
            "GROUP BY DATE(r.createdAt) ORDER BY DATE(r.createdAt)")
     List<Object[]> findDailyBookingCount(LocalDateTime startDate, LocalDateTime endDate);
+    
+    @Query("SELECT DISTINCT r.screening.id FROM Reservation r WHERE r.user.id = :userId")
+    List<Long> findScreeningIdsByUserId(Long userId);
+    
+    // Returns [row, seat] for every seat the user has reserved in the screening
+    @Query("SELECT r.row, r.seat FROM Reservation r WHERE r.user.id = :userId AND r.screening.id = :screeningId")
+    List<Object[]> findSeatPositionsByUserIdAndScreeningId(Long userId, Long screeningId);
+    
+    @Modifying
+    @Query("DELETE FROM Reservation r WHERE r.screening.id = :screeningId")
+    int deleteAllForScreening(Long screeningId);
+    
+    @Modifying
+    @Query("DELETE FROM Reservation r WHERE r.user.id = :userId AND r.screening.id = :screeningId")
+    int deleteAllForUserAndScreening(Long userId, Long screeningId);
+    
+    @Modifying
+    @Query("DELETE FROM Reservation r WHERE r.user.id = :userId")
+    int deleteAllForUser(Long userId);
 }
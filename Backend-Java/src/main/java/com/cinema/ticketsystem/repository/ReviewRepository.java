@@ -1,7 +1,10 @@
 package com.cinema.ticketsystem.repository;
 
 import com.cinema.ticketsystem.model.Review;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -10,11 +13,24 @@ import java.util.Optional;
 @Repository
 public interface ReviewRepository extends JpaRepository<Review, Long> {
     
+    @EntityGraph(attributePaths = {"user", "movie"})
     List<Review> findByMovieId(Long movieId);
     
+    @EntityGraph(attributePaths = {"user", "movie"})
     List<Review> findByUserId(Long userId);
     
     Optional<Review> findByUserIdAndMovieId(Long userId, Long movieId);
     
     boolean existsByUserIdAndMovieId(Long userId, Long movieId);
+    
+    @Query("SELECT DISTINCT r.movie.id FROM Review r WHERE r.user.id = :userId")
+    List<Long> findMovieIdsByUserId(Long userId);
+    
+    @Modifying
+    @Query("DELETE FROM Review r WHERE r.movie.id = :movieId")
+    int deleteAllForMovie(Long movieId);
+    
+    @Modifying
+    @Query("DELETE FROM Review r WHERE r.user.id = :userId")
+    int deleteAllForUser(Long userId);
 }
@@ -1,12 +1,72 @@
 package com.cinema.ticketsystem.repository;
 
+import com.cinema.ticketsystem.dto.ScreeningDTO;
 import com.cinema.ticketsystem.model.Screening;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ScreeningRepository extends JpaRepository<Screening, Long> {
-    List<Screening> findAllByOrderByStartDateTimeAsc();
+    /**
+     * One page of screenings after the (afterStart, afterId) keyset position, projected
+     * straight into DTOs so no Cinema or Movie entities are loaded.
+     */
+    @Query("SELECT new com.cinema.ticketsystem.dto.ScreeningDTO(s.id, c.id, c.name, m.id, m.title, " +
+           "s.startDateTime, s.ticketPrice, c.rows, c.seatsPerRow) " +
+           "FROM Screening s JOIN s.cinema c JOIN s.movie m " +
+           "WHERE (s.startDateTime > :afterStart OR (s.startDateTime = :afterStart AND s.id > :afterId)) " +
+           "AND (:to IS NULL OR s.startDateTime < :to) " +
+           "AND (:cinemaId IS NULL OR c.id = :cinemaId) " +
+           "AND (:movieId IS NULL OR m.id = :movieId) " +
+           "ORDER BY s.startDateTime ASC, s.id ASC")
+    List<ScreeningDTO> findPage(LocalDateTime afterStart, Long afterId, LocalDateTime to,
+                                Long cinemaId, Long movieId, Pageable pageable);
+    
+    @Query("SELECT new com.cinema.ticketsystem.dto.ScreeningDTO(s.id, c.id, c.name, m.id, m.title, " +
+           "s.startDateTime, s.ticketPrice, c.rows, c.seatsPerRow) " +
+           "FROM Screening s JOIN s.cinema c JOIN s.movie m " +
+           "WHERE s.startDateTime >= :from AND s.startDateTime < :to " +
+           "ORDER BY s.startDateTime ASC, s.id ASC")
+    List<ScreeningDTO> findStartingBetween(LocalDateTime from, LocalDateTime to);
+    
+    @Query("SELECT s FROM Screening s JOIN FETCH s.cinema JOIN FETCH s.movie WHERE s.id = :id")
+    Optional<Screening> findWithCinemaAndMovieById(Long id);
+    
+    @Modifying
+    @Query("UPDATE Screening s SET s.reservedSeats = s.reservedSeats + :reservedDelta, " +
+           "s.heldSeats = s.heldSeats + :heldDelta WHERE s.id = :screeningId")
+    int adjustSeatCounters(Long screeningId, int reservedDelta, int heldDelta);
+    
+    @Query("SELECT s.id FROM Screening s WHERE s.startDateTime >= :from AND (" +
+           "s.reservedSeats <> (SELECT COUNT(r) FROM Reservation r WHERE r.screening.id = s.id) OR " +
+           "s.heldSeats <> (SELECT COUNT(h) FROM SeatHold h WHERE h.screening.id = s.id AND h.isActive = true))")
+    List<Long> findIdsWithSeatCounterDrift(LocalDateTime from);
+    
+    @Modifying
+    @Query("UPDATE Screening s SET " +
+           "s.reservedSeats = (SELECT COUNT(r) FROM Reservation r WHERE r.screening.id = :screeningId), " +
+           "s.heldSeats = (SELECT COUNT(h) FROM SeatHold h WHERE h.screening.id = :screeningId AND h.isActive = true) " +
+           "WHERE s.id = :screeningId")
+    int recountSeatCounters(Long screeningId);
+    
+    // Returns [id, reservedSeats, heldSeats] for screenings starting in [from, to)
+    @Query("SELECT s.id, s.reservedSeats, s.heldSeats FROM Screening s " +
+           "WHERE s.startDateTime >= :from AND s.startDateTime < :to")
+    List<Object[]> findSeatCountersStartingBetween(LocalDateTime from, LocalDateTime to);
+    
+    // Returns [id, cinemaId, startDateTime] of every screening of the movie
+    @Query("SELECT s.id, s.cinema.id, s.startDateTime FROM Screening s WHERE s.movie.id = :movieId")
+    List<Object[]> findKeysByMovieId(Long movieId);
+    
+    // Returns [id, startDateTime, durationMinutes] for building the cinema's schedule index
+    @Query("SELECT s.id, s.startDateTime, m.durationMinutes FROM Screening s JOIN s.movie m " +
+           "WHERE s.cinema.id = :cinemaId AND s.startDateTime >= :from")
+    List<Object[]> findScheduleByCinemaId(Long cinemaId, LocalDateTime from);
 }
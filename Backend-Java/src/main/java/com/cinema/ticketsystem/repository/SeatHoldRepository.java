@@ -1,6 +1,8 @@
 package com.cinema.ticketsystem.repository;
 
 import com.cinema.ticketsystem.model.SeatHold;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -15,18 +17,54 @@ public interface SeatHoldRepository extends JpaRepository<SeatHold, Long> {
     
     List<SeatHold> findByScreeningIdAndIsActiveTrue(Long screeningId);
     
+    @EntityGraph(attributePaths = {"screening", "screening.movie"})
     List<SeatHold> findByUserIdAndIsActiveTrue(Long userId);
     
+    @Query("SELECT DISTINCT sh.screening.id FROM SeatHold sh WHERE sh.isActive = true")
+    List<Long> findScreeningIdsWithActiveHolds();
+    
+    @Query("SELECT DISTINCT sh.screening.id FROM SeatHold sh WHERE sh.id IN :ids")
+    List<Long> findScreeningIdsByIdIn(List<Long> ids);
+    
     Optional<SeatHold> findByScreeningIdAndRowAndSeatAndIsActiveTrue(
             Long screeningId, Integer row, Integer seat);
     
     boolean existsByScreeningIdAndRowAndSeatAndIsActiveTrue(
             Long screeningId, Integer row, Integer seat);
     
-    @Modifying
-    @Query("UPDATE SeatHold sh SET sh.isActive = false WHERE sh.expiresAt < :now AND sh.isActive = true")
-    int deactivateExpiredHolds(LocalDateTime now);
-    
     @Query("SELECT sh FROM SeatHold sh WHERE sh.expiresAt < :now AND sh.isActive = true")
     List<SeatHold> findExpiredHolds(LocalDateTime now);
+    
+    @Query("SELECT sh.row, sh.seat FROM SeatHold sh " +
+           "WHERE sh.screening.id = :screeningId AND sh.isActive = true AND sh.expiresAt > :now")
+    List<Object[]> findActiveSeatPositionsByScreeningId(Long screeningId, LocalDateTime now);
+    
+    // Released, expired and checked-out holds are deleted so they no longer occupy the seat's unique key
+    @Modifying
+    @Query("DELETE FROM SeatHold sh WHERE sh.id IN :ids")
+    int deleteHolds(List<Long> ids);
+    
+    @Query("SELECT DISTINCT sh.screening.id FROM SeatHold sh WHERE sh.user.id = :userId AND sh.isActive = true")
+    List<Long> findScreeningIdsByUserId(Long userId);
+    
+    // Returns [row, seat] for every seat the user holds in the screening
+    @Query("SELECT sh.row, sh.seat FROM SeatHold sh " +
+           "WHERE sh.user.id = :userId AND sh.screening.id = :screeningId AND sh.isActive = true")
+    List<Object[]> findSeatPositionsByUserIdAndScreeningId(Long userId, Long screeningId);
+    
+    @Modifying
+    @Query("DELETE FROM SeatHold sh WHERE sh.screening.id = :screeningId")
+    int deleteAllForScreening(Long screeningId);
+    
+    @Modifying
+    @Query("DELETE FROM SeatHold sh WHERE sh.user.id = :userId AND sh.screening.id = :screeningId")
+    int deleteAllForUserAndScreening(Long userId, Long screeningId);
+    
+    @Modifying
+    @Query("DELETE FROM SeatHold sh WHERE sh.user.id = :userId")
+    int deleteAllForUser(Long userId);
+    
+    // Rows left inactive by older versions, purged in batches
+    @Query("SELECT sh.id FROM SeatHold sh WHERE sh.isActive = false")
+    List<Long> findInactiveHoldIds(Pageable pageable);
 }
@@ -15,10 +15,15 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 @Component
 public class JwtRequestFilter extends OncePerRequestFilter {
     
+    public static final String SEAT_EVENTS_TOKEN_PARAM = "token";
+    private static final Pattern SEAT_EVENTS_PATH = Pattern.compile("^/api/seats/screening/(\\d+)/events$");
+    
     @Autowired
     private UserDetailsService userDetailsService;
     
@@ -34,10 +39,26 @@ public class JwtRequestFilter extends OncePerRequestFilter {
         String username = null;
         String jwtToken = null;
         
+        // The seat event stream takes a scoped token from the query string; nothing else does
+        Matcher seatEvents = SEAT_EVENTS_PATH.matcher(request.getRequestURI().substring(request.getContextPath().length()));
+        boolean seatEventsRequest = seatEvents.matches() && "GET".equalsIgnoreCase(request.getMethod());
+        
         if (requestTokenHeader != null && requestTokenHeader.startsWith("Bearer ")) {
             jwtToken = requestTokenHeader.substring(7);
+        } else if (seatEventsRequest) {
+            jwtToken = request.getParameter(SEAT_EVENTS_TOKEN_PARAM);
+        }
+        if (jwtToken != null) {
             try {
-                username = jwtTokenUtil.extractUsername(jwtToken);
+                boolean streamToken = jwtTokenUtil.isSeatEventsToken(jwtToken);
+                if (!streamToken) {
+                    // Login tokens are only accepted in the Authorization header
+                    username = requestTokenHeader != null ? jwtTokenUtil.extractUsername(jwtToken) : null;
+                } else if (seatEventsRequest && seatEvents.group(1).equals(String.valueOf(
+                        jwtTokenUtil.extractClaim(jwtToken, claims -> claims.get("screeningId", Long.class))))) {
+                    // Stream tokens only open the stream of the screening they were issued for
+                    username = jwtTokenUtil.extractUsername(jwtToken);
+                }
             } catch (Exception e) {
                 logger.error("Unable to get JWT Token or token has expired");
             }
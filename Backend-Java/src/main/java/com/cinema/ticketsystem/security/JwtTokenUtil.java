@@ -16,12 +16,18 @@ import java.util.function.Function;
 @Component
 public class JwtTokenUtil {
     
+    private static final String SCOPE_CLAIM = "scope";
+    private static final String SEAT_EVENTS_SCOPE = "seat-events";
+    
     @Value("${jwt.secret}")
     private String secret;
     
     @Value("${jwt.expiration}")
     private Long expiration;
     
+    @Value("${jwt.stream-expiration:60000}")
+    private Long streamExpiration;
+    
     private SecretKey getSigningKey() {
         return Keys.hmacShaKeyFor(secret.getBytes());
     }
@@ -68,6 +74,31 @@ public class JwtTokenUtil {
                 .compact();
     }
     
+    /**
+     * Short-lived token for one screening's seat event stream. EventSource cannot send an
+     * Authorization header, so this token travels in the query string instead of the login token.
+     */
+    public String generateSeatEventsToken(UserDetails userDetails, Long userId, Long screeningId) {
+        long now = System.currentTimeMillis();
+        return Jwts.builder()
+                .claim("userId", userId)
+                .claim("screeningId", screeningId)
+                .claim(SCOPE_CLAIM, SEAT_EVENTS_SCOPE)
+                .subject(userDetails.getUsername())
+                .issuedAt(new Date(now))
+                .expiration(new Date(now + streamExpiration))
+                .signWith(getSigningKey())
+                .compact();
+    }
+    
+    public long getStreamExpirationSeconds() {
+        return streamExpiration / 1000;
+    }
+    
+    public boolean isSeatEventsToken(String token) {
+        return SEAT_EVENTS_SCOPE.equals(extractClaim(token, claims -> claims.get(SCOPE_CLAIM, String.class)));
+    }
+    
     public Boolean validateToken(String token, UserDetails userDetails) {
         final String username = extractUsername(token);
         return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
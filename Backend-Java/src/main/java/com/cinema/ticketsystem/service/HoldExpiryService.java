@@ -0,0 +1,23 @@
+package com.cinema.ticketsystem.service;
+
+import com.cinema.ticketsystem.model.SeatHold;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface HoldExpiryService {
+    
+    void track(List<SeatHold> holds);
+    
+    void reschedule(List<SeatHold> holds);
+    
+    void untrack(Collection<Long> holdIds);
+    
+    void untrackScreenings(Collection<Long> screeningIds);
+    
+    void untrackUser(Long userId);
+    
+    void expireDueHolds();
+    
+    void purgeInactiveHolds();
+}
@@ -0,0 +1,10 @@
+package com.cinema.ticketsystem.service;
+
+public interface HoldQuotaService {
+    
+    void acquire(Long userId, Long screeningId, int seats);
+    
+    void release(Long userId, Long screeningId, int seats);
+    
+    void restore(Long userId, Long screeningId, int seats);
+}
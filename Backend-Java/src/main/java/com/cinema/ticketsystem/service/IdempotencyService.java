@@ -0,0 +1,13 @@
+package com.cinema.ticketsystem.service;
+
+import org.springframework.http.ResponseEntity;
+
+import java.util.function.Supplier;
+
+public interface IdempotencyService {
+    
+    String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    
+    ResponseEntity<?> execute(Long userId, String operation, String idempotencyKey, Object request,
+                              Supplier<ResponseEntity<?>> action);
+}
@@ -5,6 +5,7 @@ import com.cinema.ticketsystem.dto.CreateReviewRequest;
 import com.cinema.ticketsystem.dto.MovieDTO;
 import com.cinema.ticketsystem.dto.ReviewDTO;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface MovieService {
@@ -42,4 +43,6 @@ public interface MovieService {
     List<ReviewDTO> getMovieReviews(Long movieId);
     
     List<ReviewDTO> getUserReviews(Long userId);
+    
+    void refreshAverageRatings(Collection<Long> movieIds);
 }
@@ -1,5 +1,7 @@
 package com.cinema.ticketsystem.service;
 
+import com.cinema.ticketsystem.dto.CheckoutRequest;
+import com.cinema.ticketsystem.dto.CreateBatchReservationRequest;
 import com.cinema.ticketsystem.dto.CreateReservationRequest;
 import com.cinema.ticketsystem.dto.ReservationDTO;
 
@@ -9,6 +11,10 @@ public interface ReservationService {
     
     ReservationDTO createReservation(Long userId, CreateReservationRequest request);
     
+    List<ReservationDTO> createReservations(Long userId, CreateBatchReservationRequest request);
+    
+    List<ReservationDTO> checkout(Long userId, CheckoutRequest request);
+    
     void deleteReservation(Long userId, Long screeningId, Integer row, Integer seat);
     
     List<ReservationDTO> getUserReservations(Long userId);
@@ -0,0 +1,13 @@
+package com.cinema.ticketsystem.service;
+
+import com.cinema.ticketsystem.dto.ScreeningImportReportDTO;
+
+import java.io.InputStream;
+
+public interface ScreeningImportService {
+    
+    String FORMAT_NDJSON = "ndjson";
+    String FORMAT_CSV = "csv";
+    
+    ScreeningImportReportDTO importScreenings(InputStream input, String format);
+}
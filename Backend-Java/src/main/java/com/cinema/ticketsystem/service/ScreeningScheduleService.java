@@ -0,0 +1,25 @@
+package com.cinema.ticketsystem.service;
+
+import com.cinema.ticketsystem.dto.CreateScreeningRequest;
+import com.cinema.ticketsystem.dto.ScheduleValidationResultDTO;
+import com.cinema.ticketsystem.model.Screening;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface ScreeningScheduleService {
+    
+    void register(Screening screening);
+    
+    void unregister(Long cinemaId, Long screeningId);
+    
+    void invalidateAll();
+    
+    boolean isInPast(LocalDateTime startDateTime);
+    
+    List<Long> findConflicts(Long cinemaId, LocalDateTime startDateTime, int durationMinutes);
+    
+    LocalDateTime findNextFreeSlot(Long cinemaId, Long movieId, LocalDateTime from);
+    
+    List<ScheduleValidationResultDTO> validateSchedule(List<CreateScreeningRequest> requests);
+}
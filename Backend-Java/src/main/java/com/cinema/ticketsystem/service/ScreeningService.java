@@ -3,16 +3,22 @@ package com.cinema.ticketsystem.service;
 import com.cinema.ticketsystem.dto.CreateScreeningRequest;
 import com.cinema.ticketsystem.dto.ScreeningDTO;
 import com.cinema.ticketsystem.dto.ScreeningDetailDTO;
+import com.cinema.ticketsystem.dto.ScreeningPageDTO;
 
-import java.util.List;
+import java.time.LocalDateTime;
 
 public interface ScreeningService {
     
-    List<ScreeningDTO> getAllScreenings();
+    ScreeningPageDTO getScreenings(LocalDateTime from, LocalDateTime to, Long cinemaId, Long movieId,
+                                   String cursor, Integer limit);
     
     ScreeningDetailDTO getScreeningWithSeats(Long id);
     
+    String getSeatMapVersionTag(Long id);
+    
     ScreeningDTO createScreening(CreateScreeningRequest request);
     
     void deleteScreening(Long id);
+    
+    void deleteScreeningsForMovie(Long movieId);
 }
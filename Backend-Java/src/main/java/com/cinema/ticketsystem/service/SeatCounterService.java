@@ -0,0 +1,14 @@
+package com.cinema.ticketsystem.service;
+
+import java.time.LocalDateTime;
+
+public interface SeatCounterService {
+    
+    void adjust(Long screeningId, int reservedDelta, int heldDelta);
+    
+    int reconcile(LocalDateTime startingFrom);
+    
+    void reconcileRecentScreenings();
+    
+    void reconcileAll();
+}
@@ -0,0 +1,10 @@
+package com.cinema.ticketsystem.service;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+public interface SeatEventService {
+    
+    SseEmitter subscribe(Long screeningId, Long userId);
+    
+    int getWatcherCount();
+}
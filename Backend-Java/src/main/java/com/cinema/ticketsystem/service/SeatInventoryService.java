@@ -0,0 +1,23 @@
+package com.cinema.ticketsystem.service;
+
+import com.cinema.ticketsystem.dto.SeatPosition;
+import com.cinema.ticketsystem.inventory.ScreeningSeatState;
+
+import java.util.Collection;
+
+public interface SeatInventoryService {
+    
+    ScreeningSeatState getState(Long screeningId);
+    
+    void markHeld(Long screeningId, Collection<SeatPosition> seats);
+    
+    void releaseHeld(Long screeningId, Collection<SeatPosition> seats);
+    
+    void markReserved(Long screeningId, Collection<SeatPosition> seats);
+    
+    void releaseReserved(Long screeningId, Collection<SeatPosition> seats);
+    
+    void evict(Long screeningId);
+    
+    void evictMovie(Long movieId);
+}
@@ -1,5 +1,7 @@
 package com.cinema.ticketsystem.service;
 
+import com.cinema.ticketsystem.dto.BestAvailableRequest;
+
 import java.util.List;
 import java.util.Map;
 
@@ -7,8 +9,16 @@ public interface SeatSelectionService {
     
     Map<String, Object> getAvailableSeats(Long screeningId);
     
+    Map<String, Object> getPackedSeatMap(Long screeningId);
+    
+    String getSeatMapVersionTag(Long screeningId);
+    
     Map<String, Object> holdSeats(Long userId, Long screeningId, List<Map<String, Integer>> seats);
     
+    Map<String, Object> holdBestAvailable(Long userId, BestAvailableRequest request);
+    
+    Map<String, Object> extendHolds(Long userId, List<Long> holdIds);
+    
     void releaseHolds(Long userId, List<Long> holdIds);
     
     void releaseAllUserHolds(Long userId);
@@ -0,0 +1,21 @@
+package com.cinema.ticketsystem.service;
+
+import com.cinema.ticketsystem.dto.ShowtimeDTO;
+import com.cinema.ticketsystem.model.Screening;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface ShowtimeService {
+    
+    List<ShowtimeDTO> getShowtimes(LocalDate date, Long cinemaId, Long movieId);
+    
+    void screeningCreated(Screening screening);
+    
+    void screeningsCreated(List<Screening> screenings);
+    
+    void screeningDeleted(Long screeningId, LocalDateTime startDateTime);
+    
+    void invalidateAll();
+}
@@ -0,0 +1,18 @@
+package com.cinema.ticketsystem.service;
+
+import java.util.Map;
+
+public interface WaitingRoomService {
+    
+    boolean isEnabled();
+    
+    Map<String, Object> join(Long userId, Long screeningId);
+    
+    Map<String, Object> getStatus(String token);
+    
+    Long getAdmittedScreeningId(String token, Long userId);
+    
+    boolean tryEnterBooking();
+    
+    void leaveBooking();
+}
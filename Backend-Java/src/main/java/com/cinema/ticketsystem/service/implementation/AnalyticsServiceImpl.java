@@ -154,7 +154,7 @@ public class AnalyticsServiceImpl implements AnalyticsService {
                     Map<String, Object> stats = new HashMap<>();
                     
                     int totalSeats = screening.getCinema().getRows() * screening.getCinema().getSeatsPerRow();
-                    long reservedSeats = reservationRepository.findByScreeningId(screeningId).size();
+                    long reservedSeats = screening.getReservedSeats();
                     
                     double occupancyRate = totalSeats > 0 
                             ? (reservedSeats * 100.0 / totalSeats) 
@@ -194,7 +194,7 @@ public class AnalyticsServiceImpl implements AnalyticsService {
                                 if (screening == null) return 0.0;
                                 
                                 int totalSeats = screening.getCinema().getRows() * screening.getCinema().getSeatsPerRow();
-                                long reservedSeats = reservationRepository.findByScreeningId(screeningId).size();
+                                long reservedSeats = screening.getReservedSeats();
                                 
                                 return totalSeats > 0 ? (reservedSeats * 100.0 / totalSeats) : 0.0;
                             })
@@ -0,0 +1,291 @@
+package com.cinema.ticketsystem.service.implementation;
+
+import com.cinema.ticketsystem.dto.SeatPosition;
+import com.cinema.ticketsystem.inventory.AfterCommit;
+import com.cinema.ticketsystem.inventory.HierarchicalTimingWheel;
+import com.cinema.ticketsystem.inventory.SeatMutationExecutor;
+import com.cinema.ticketsystem.model.SeatHold;
+import com.cinema.ticketsystem.repository.SeatHoldRepository;
+import com.cinema.ticketsystem.service.HoldExpiryService;
+import com.cinema.ticketsystem.service.HoldQuotaService;
+import com.cinema.ticketsystem.service.SeatCounterService;
+import com.cinema.ticketsystem.service.SeatInventoryService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * Expires seat holds from an in-process timing wheel keyed on {@link SeatHold#getExpiresAt()}.
+ * The wheel ticks every second and releases due holds in one batch per screening,
+ * so expired seats free up within about a second without table-wide sweeps.
+ * Expired holds are deleted rather than flagged, so seat_holds only ever contains live holds.
+ * The wheel has its own tick thread and only queues the batches on the writer threads,
+ * so a busy screening cannot delay expiry elsewhere or the application's other scheduled jobs.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class HoldExpiryServiceImpl implements HoldExpiryService, DisposableBean {
+    
+    private static final long TICK_MILLIS = 1000;
+    private static final long RETRY_DELAY_MILLIS = 5000;
+    private static final int PURGE_BATCH_SIZE = 500;
+    private static final int PURGE_MAX_BATCHES = 20;
+    
+    private final SeatHoldRepository seatHoldRepository;
+    private final SeatInventoryService seatInventoryService;
+    private final HoldQuotaService holdQuotaService;
+    private final SeatCounterService seatCounterService;
+    private final SeatMutationExecutor seatMutationExecutor;
+    private final TransactionTemplate transactionTemplate;
+    
+    private final HierarchicalTimingWheel<TrackedHold> wheel =
+            new HierarchicalTimingWheel<>(TICK_MILLIS, System.currentTimeMillis());
+    private final ScheduledExecutorService ticker = Executors.newSingleThreadScheduledExecutor(task -> {
+        Thread thread = new Thread(task, "hold-expiry-wheel");
+        thread.setDaemon(true);
+        return thread;
+    });
+    
+    // Holds that are still active; released holds are dropped here and ignored when their slot fires
+    private final Map<Long, TrackedHold> liveHolds = new ConcurrentHashMap<>();
+    // Holds whose quota is already counted, so the startup rebuild restores each hold at most once;
+    // holds created before the rebuild went through acquire and are marked here from inside their transaction
+    private final Set<Long> countedHolds = ConcurrentHashMap.newKeySet();
+    private volatile boolean rebuilt;
+    
+    public void track(List<SeatHold> holds) {
+        if (!rebuilt) {
+            holds.forEach(hold -> countedHolds.add(hold.getId()));
+        }
+        List<TrackedHold> tracked = holds.stream()
+                .map(TrackedHold::of)
+                .collect(Collectors.toList());
+        AfterCommit.run(() -> schedule(tracked));
+    }
+    
+    /**
+     * Moves still-live holds to their new deadline after commit. The old wheel entry stays
+     * behind and is ignored when it fires, since it no longer equals the live record.
+     */
+    public void reschedule(List<SeatHold> holds) {
+        List<TrackedHold> updated = holds.stream()
+                .map(TrackedHold::of)
+                .collect(Collectors.toList());
+        AfterCommit.run(() -> {
+            synchronized (wheel) {
+                for (TrackedHold hold : updated) {
+                    if (liveHolds.computeIfPresent(hold.holdId(), (id, current) -> hold) == hold) {
+                        wheel.schedule(hold, hold.expiresAtMillis());
+                    }
+                }
+            }
+        });
+    }
+    
+    public void untrack(Collection<Long> holdIds) {
+        List<Long> ids = List.copyOf(holdIds);
+        AfterCommit.run(() -> ids.stream()
+                .map(liveHolds::remove)
+                .filter(Objects::nonNull)
+                .forEach(this::releaseQuota));
+    }
+    
+    // Used after bulk deletes, which remove holds without knowing their ids
+    public void untrackScreenings(Collection<Long> screeningIds) {
+        Set<Long> screenings = Set.copyOf(screeningIds);
+        AfterCommit.run(() -> untrackMatching(hold -> screenings.contains(hold.screeningId())));
+    }
+    
+    public void untrackUser(Long userId) {
+        AfterCommit.run(() -> untrackMatching(hold -> hold.userId().equals(userId)));
+    }
+    
+    public void expireDueHolds() {
+        List<TrackedHold> due;
+        synchronized (wheel) {
+            due = wheel.advance(System.currentTimeMillis());
+        }
+        if (due.isEmpty()) {
+            return;
+        }
+        
+        // Holds released or extended since they were scheduled no longer equal the live record;
+        // the rest stay tracked until their delete commits
+        due.stream()
+                .filter(hold -> hold.equals(liveHolds.get(hold.holdId())))
+                .collect(Collectors.groupingBy(TrackedHold::screeningId))
+                .forEach(this::expireBatch);
+    }
+    
+    /**
+     * Tracks the holds left over from before startup. Requests may already be served by now, so
+     * holds that are tracked already keep their entry, and only holds whose quota was never
+     * counted are restored; those holds exist already, so the limits are not applied to them.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        int tracked = 0;
+        for (Long screeningId : seatHoldRepository.findScreeningIdsWithActiveHolds()) {
+            List<TrackedHold> holds = seatHoldRepository.findByScreeningIdAndIsActiveTrue(screeningId).stream()
+                    .map(TrackedHold::of)
+                    .collect(Collectors.toList());
+            synchronized (wheel) {
+                for (TrackedHold hold : holds) {
+                    if (liveHolds.putIfAbsent(hold.holdId(), hold) == null) {
+                        wheel.schedule(hold, hold.expiresAtMillis());
+                    }
+                }
+            }
+            holds.stream()
+                    .filter(hold -> countedHolds.add(hold.holdId()))
+                    .forEach(hold -> holdQuotaService.restore(hold.userId(), hold.screeningId(), 1));
+            tracked += holds.size();
+        }
+        rebuilt = true;
+        countedHolds.clear();
+        log.info("Hold expiry wheel rebuilt with {} active holds", tracked);
+        ticker.scheduleAtFixedRate(this::tick, TICK_MILLIS, TICK_MILLIS, TimeUnit.MILLISECONDS);
+    }
+    
+    @Override
+    public void destroy() {
+        ticker.shutdownNow();
+    }
+    
+    private void tick() {
+        // An exception escaping here would cancel every later tick
+        try {
+            expireDueHolds();
+        } catch (RuntimeException e) {
+            log.error("Hold expiry tick failed", e);
+        }
+    }
+    
+    private void schedule(List<TrackedHold> holds) {
+        synchronized (wheel) {
+            for (TrackedHold hold : holds) {
+                liveHolds.put(hold.holdId(), hold);
+                wheel.schedule(hold, hold.expiresAtMillis());
+            }
+        }
+    }
+    
+    private void expireBatch(Long screeningId, List<TrackedHold> holds) {
+        List<Long> holdIds = holds.stream().map(TrackedHold::holdId).collect(Collectors.toList());
+        seatMutationExecutor.submit(screeningId, () -> transactionTemplate.execute(status -> {
+            // Re-read on the writer thread: a hold consumed in the meantime may already have
+            // been replaced by someone else's hold on the same seat, which must stay held,
+            // and a hold extended in the meantime must not be expired at its old deadline
+            LocalDateTime now = LocalDateTime.now();
+            List<SeatHold> expired = new ArrayList<>();
+            Set<Long> extended = new HashSet<>();
+            for (SeatHold hold : seatHoldRepository.findAllById(holdIds)) {
+                if (hold.getExpiresAt().isAfter(now)) {
+                    extended.add(hold.getId());
+                } else {
+                    expired.add(hold);
+                }
+            }
+            if (!expired.isEmpty()) {
+                seatHoldRepository.deleteHolds(expired.stream().map(SeatHold::getId).collect(Collectors.toList()));
+                seatCounterService.adjust(screeningId, 0, -expired.size());
+                seatInventoryService.releaseHeld(screeningId, expired.stream()
+                        .map(hold -> new SeatPosition(hold.getRow(), hold.getSeat()))
+                        .collect(Collectors.toList()));
+            }
+            log.debug("Expired {} seat holds for screening {}", expired.size(), screeningId);
+            return extended;
+        })).whenComplete((extended, error) -> {
+            if (error != null) {
+                log.warn("Failed to expire {} seat holds for screening {}, retrying in {} ms",
+                        holdIds.size(), screeningId, RETRY_DELAY_MILLIS, error);
+                retry(holds);
+                return;
+            }
+            // Whoever removes a hold from liveHolds gives its quota back, so it is released exactly once
+            holds.stream()
+                    .filter(hold -> !extended.contains(hold.holdId()))
+                    .filter(hold -> liveHolds.remove(hold.holdId(), hold))
+                    .forEach(this::releaseQuota);
+        });
+    }
+    
+    private void retry(List<TrackedHold> holds) {
+        long retryAt = System.currentTimeMillis() + RETRY_DELAY_MILLIS;
+        synchronized (wheel) {
+            for (TrackedHold hold : holds) {
+                if (hold.equals(liveHolds.get(hold.holdId()))) {
+                    wheel.schedule(hold, retryAt);
+                }
+            }
+        }
+    }
+    
+    private void untrackMatching(Predicate<TrackedHold> filter) {
+        for (TrackedHold hold : liveHolds.values()) {
+            if (filter.test(hold) && liveHolds.remove(hold.holdId(), hold)) {
+                releaseQuota(hold);
+            }
+        }
+    }
+    
+    @Scheduled(fixedDelay = 60000)
+    public void purgeInactiveHolds() {
+        // Bounded work per run so the purge never holds long locks on seat_holds
+        int purged = 0;
+        for (int batch = 0; batch < PURGE_MAX_BATCHES; batch++) {
+            List<Long> ids = seatHoldRepository.findInactiveHoldIds(PageRequest.of(0, PURGE_BATCH_SIZE));
+            if (ids.isEmpty()) {
+                break;
+            }
+            Integer deleted = transactionTemplate.execute(status -> seatHoldRepository.deleteHolds(ids));
+            purged += deleted != null ? deleted : 0;
+            if (ids.size() < PURGE_BATCH_SIZE) {
+                break;
+            }
+        }
+        if (purged > 0) {
+            log.info("Purged {} inactive seat holds", purged);
+        }
+    }
+    
+    private void releaseQuota(TrackedHold hold) {
+        holdQuotaService.release(hold.userId(), hold.screeningId(), 1);
+    }
+    
+    private record TrackedHold(Long holdId, Long userId, Long screeningId, Integer row, Integer seat,
+                               LocalDateTime expiresAt) {
+        
+        static TrackedHold of(SeatHold hold) {
+            return new TrackedHold(hold.getId(), hold.getUser().getId(), hold.getScreening().getId(),
+                    hold.getRow(), hold.getSeat(), hold.getExpiresAt());
+        }
+        
+        long expiresAtMillis() {
+            return expiresAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        }
+    }
+}
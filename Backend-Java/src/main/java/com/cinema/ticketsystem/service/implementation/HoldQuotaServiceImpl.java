@@ -0,0 +1,155 @@
+package com.cinema.ticketsystem.service.implementation;
+
+import com.cinema.ticketsystem.exception.HoldQuotaExceededException;
+import com.cinema.ticketsystem.service.HoldQuotaService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-user hold quotas kept in CAS-updated counters: seats held per screening,
+ * seats held overall and hold calls per minute. Counters are taken before a hold
+ * touches the database and given back when the hold is released, expires or is
+ * turned into a reservation.
+ * Idle counters are swept by marking them -1 first, so a request racing the sweep
+ * retries on a fresh counter instead of counting into a removed one.
+ */
+@Service
+public class HoldQuotaServiceImpl implements HoldQuotaService {
+    
+    private static final int RETIRED = -1;
+    private static final int COUNT_BITS = 20;
+    private static final long COUNT_MASK = (1L << COUNT_BITS) - 1;
+    
+    private final int maxSeatsPerScreening;
+    private final int maxActiveHolds;
+    private final int maxHoldCallsPerMinute;
+    
+    private final Map<UserScreening, AtomicInteger> seatsPerScreening = new ConcurrentHashMap<>();
+    private final Map<Long, AtomicInteger> activeHolds = new ConcurrentHashMap<>();
+    // Minute number in the high bits, calls made in that minute in the low bits
+    private final Map<Long, AtomicLong> callWindows = new ConcurrentHashMap<>();
+    
+    public HoldQuotaServiceImpl(@Value("${app.seats.quota.max-seats-per-screening:10}") int maxSeatsPerScreening,
+                                @Value("${app.seats.quota.max-active-holds:20}") int maxActiveHolds,
+                                @Value("${app.seats.quota.max-hold-calls-per-minute:30}") int maxHoldCallsPerMinute) {
+        this.maxSeatsPerScreening = maxSeatsPerScreening;
+        this.maxActiveHolds = maxActiveHolds;
+        this.maxHoldCallsPerMinute = maxHoldCallsPerMinute;
+    }
+    
+    public void acquire(Long userId, Long screeningId, int seats) {
+        if (!tryCountCall(userId)) {
+            throw new HoldQuotaExceededException("Too many hold requests. Please wait a minute and try again.");
+        }
+        if (!tryAdd(activeHolds, userId, seats, maxActiveHolds)) {
+            throw new HoldQuotaExceededException("You can hold at most " + maxActiveHolds + " seats at a time.");
+        }
+        if (!tryAdd(seatsPerScreening, new UserScreening(userId, screeningId), seats, maxSeatsPerScreening)) {
+            subtract(activeHolds.get(userId), seats);
+            throw new HoldQuotaExceededException("You can hold at most " + maxSeatsPerScreening
+                    + " seats for one screening.");
+        }
+    }
+    
+    public void release(Long userId, Long screeningId, int seats) {
+        subtract(activeHolds.get(userId), seats);
+        subtract(seatsPerScreening.get(new UserScreening(userId, screeningId)), seats);
+    }
+    
+    public void restore(Long userId, Long screeningId, int seats) {
+        // Called once per hold left over from before startup; those holds exist already, so limits are not checked
+        add(activeHolds, userId, seats);
+        add(seatsPerScreening, new UserScreening(userId, screeningId), seats);
+    }
+    
+    @Scheduled(fixedRate = 600000)
+    public void sweepIdleCounters() {
+        retireIdle(activeHolds);
+        retireIdle(seatsPerScreening);
+        long minute = currentMinute();
+        callWindows.entrySet().removeIf(entry -> (entry.getValue().get() >>> COUNT_BITS) < minute);
+    }
+    
+    private boolean tryCountCall(Long userId) {
+        long minute = currentMinute();
+        AtomicLong window = callWindows.computeIfAbsent(userId, id -> new AtomicLong());
+        while (true) {
+            long current = window.get();
+            long count = (current >>> COUNT_BITS) == minute ? current & COUNT_MASK : 0;
+            if (count >= maxHoldCallsPerMinute) {
+                return false;
+            }
+            if (window.compareAndSet(current, (minute << COUNT_BITS) | (count + 1))) {
+                return true;
+            }
+        }
+    }
+    
+    private static <K> boolean tryAdd(Map<K, AtomicInteger> counters, K key, int amount, int limit) {
+        while (true) {
+            AtomicInteger counter = counters.computeIfAbsent(key, k -> new AtomicInteger());
+            int current = counter.get();
+            if (current == RETIRED) {
+                // Being swept; wait for the removal and use a fresh counter
+                counters.remove(key, counter);
+                continue;
+            }
+            if (current + amount > limit) {
+                return false;
+            }
+            if (counter.compareAndSet(current, current + amount)) {
+                return true;
+            }
+        }
+    }
+    
+    private static <K> void add(Map<K, AtomicInteger> counters, K key, int amount) {
+        while (true) {
+            AtomicInteger counter = counters.computeIfAbsent(key, k -> new AtomicInteger());
+            int current = counter.get();
+            if (current == RETIRED) {
+                counters.remove(key, counter);
+                continue;
+            }
+            if (counter.compareAndSet(current, current + amount)) {
+                return;
+            }
+        }
+    }
+    
+    private static void subtract(AtomicInteger counter, int amount) {
+        if (counter == null) {
+            return;
+        }
+        while (true) {
+            int current = counter.get();
+            if (current <= 0) {
+                return;
+            }
+            if (counter.compareAndSet(current, Math.max(0, current - amount))) {
+                return;
+            }
+        }
+    }
+    
+    private static <K> void retireIdle(Map<K, AtomicInteger> counters) {
+        counters.forEach((key, counter) -> {
+            if (counter.compareAndSet(0, RETIRED)) {
+                counters.remove(key, counter);
+            }
+        });
+    }
+    
+    private static long currentMinute() {
+        return System.currentTimeMillis() / 60000;
+    }
+    
+    private record UserScreening(Long userId, Long screeningId) {
+    }
+}
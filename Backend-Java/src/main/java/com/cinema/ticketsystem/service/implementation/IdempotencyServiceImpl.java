@@ -0,0 +1,227 @@
+package com.cinema.ticketsystem.service.implementation;
+
+import com.cinema.ticketsystem.model.IdempotencyRecord;
+import com.cinema.ticketsystem.repository.IdempotencyRecordRepository;
+import com.cinema.ticketsystem.service.IdempotencyService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Replays stored responses for retried POSTs carrying an Idempotency-Key.
+ * Completed responses live in a bounded LRU cache backed by the idempotency_records
+ * table; a request already running under the same key is awaited instead of raced.
+ * Only successes and final client errors are stored, so a retry after a 5xx or a transient
+ * 4xx such as a conflict or a 429 executes again.
+ */
+@Slf4j
+@Service
+public class IdempotencyServiceImpl implements IdempotencyService {
+    
+    private static final int MAX_KEY_LENGTH = 255;
+    private static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    private static final Set<Integer> TRANSIENT_CLIENT_ERRORS = Set.of(408, 409, 423, 425, 429);
+    
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final long ttlHours;
+    private final long waitTimeoutSeconds;
+    private final Map<String, StoredResponse> cache;
+    private final Map<String, CompletableFuture<StoredResponse>> inFlight = new ConcurrentHashMap<>();
+    
+    public IdempotencyServiceImpl(IdempotencyRecordRepository idempotencyRecordRepository,
+                                  TransactionTemplate transactionTemplate,
+                                  ObjectMapper objectMapper,
+                                  @Value("${app.idempotency.cache-size:10000}") int cacheSize,
+                                  @Value("${app.idempotency.ttl-hours:24}") long ttlHours,
+                                  @Value("${app.idempotency.wait-timeout-seconds:30}") long waitTimeoutSeconds) {
+        this.idempotencyRecordRepository = idempotencyRecordRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.ttlHours = ttlHours;
+        this.waitTimeoutSeconds = waitTimeoutSeconds;
+        this.cache = Collections.synchronizedMap(new LinkedHashMap<String, StoredResponse>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, StoredResponse> eldest) {
+                return size() > cacheSize;
+            }
+        });
+    }
+    
+    public ResponseEntity<?> execute(Long userId, String operation, String idempotencyKey, Object request,
+                                     Supplier<ResponseEntity<?>> action) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return action.get();
+        }
+        if (idempotencyKey.length() > MAX_KEY_LENGTH) {
+            return ResponseEntity.badRequest().body(Map.of("message", "Idempotency-Key must be at most 255 characters"));
+        }
+        String scopedKey = userId + ":" + operation + ":" + idempotencyKey;
+        String requestHash = hash(request);
+        
+        while (true) {
+            StoredResponse stored = lookup(scopedKey);
+            if (stored != null) {
+                return replay(stored, requestHash);
+            }
+            
+            CompletableFuture<StoredResponse> execution = new CompletableFuture<>();
+            CompletableFuture<StoredResponse> running = inFlight.putIfAbsent(scopedKey, execution);
+            if (running != null) {
+                // Duplicate of a request still in progress: wait for its outcome
+                try {
+                    stored = running.get(waitTimeoutSeconds, TimeUnit.SECONDS);
+                    if (stored != null) {
+                        return replay(stored, requestHash);
+                    }
+                } catch (ExecutionException e) {
+                    // First attempt threw; fall through and execute this one
+                } catch (TimeoutException e) {
+                    return ResponseEntity.status(HttpStatus.CONFLICT)
+                            .body(Map.of("message", "A request with this Idempotency-Key is still being processed"));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new RuntimeException("Interrupted while waiting for a duplicate request", e);
+                }
+                continue;
+            }
+            
+            try {
+                // The first execution may have finished between the lookup and claiming the key
+                stored = lookup(scopedKey);
+                if (stored != null) {
+                    execution.complete(stored);
+                    return replay(stored, requestHash);
+                }
+                ResponseEntity<?> response = action.get();
+                execution.complete(store(scopedKey, requestHash, response));
+                return response;
+            } catch (RuntimeException | Error e) {
+                execution.completeExceptionally(e);
+                throw e;
+            } finally {
+                inFlight.remove(scopedKey, execution);
+            }
+        }
+    }
+    
+    @Scheduled(fixedRate = 3600000)
+    public void purgeExpiredRecords() {
+        LocalDateTime cutoff = LocalDateTime.now().minusHours(ttlHours);
+        Integer purged = transactionTemplate.execute(status -> idempotencyRecordRepository.deleteCreatedBefore(cutoff));
+        synchronized (cache) {
+            cache.values().removeIf(stored -> stored.createdAt.isBefore(cutoff));
+        }
+        if (purged != null && purged > 0) {
+            log.info("Purged {} expired idempotency records", purged);
+        }
+    }
+    
+    private StoredResponse lookup(String scopedKey) {
+        StoredResponse stored = cache.get(scopedKey);
+        if (stored != null) {
+            return stored;
+        }
+        stored = idempotencyRecordRepository.findByScopedKey(scopedKey)
+                .map(record -> new StoredResponse(record.getRequestHash(), record.getStatusCode(),
+                        record.getResponseBody(), record.getCreatedAt()))
+                .orElse(null);
+        if (stored != null) {
+            cache.put(scopedKey, stored);
+        }
+        return stored;
+    }
+    
+    private StoredResponse store(String scopedKey, String requestHash, ResponseEntity<?> response) {
+        if (!isFinal(response.getStatusCode())) {
+            return null;
+        }
+        String body;
+        try {
+            body = response.getBody() == null ? null : objectMapper.writeValueAsString(response.getBody());
+        } catch (JsonProcessingException e) {
+            log.warn("Response for idempotency key {} could not be stored", scopedKey, e);
+            return null;
+        }
+        
+        StoredResponse stored = new StoredResponse(requestHash, response.getStatusCode().value(), body, LocalDateTime.now());
+        IdempotencyRecord record = new IdempotencyRecord();
+        record.setScopedKey(scopedKey);
+        record.setRequestHash(requestHash);
+        record.setStatusCode(stored.statusCode);
+        record.setResponseBody(body);
+        try {
+            transactionTemplate.executeWithoutResult(status -> idempotencyRecordRepository.save(record));
+        } catch (DataIntegrityViolationException e) {
+            // Another instance stored the same key first; its response wins on the next lookup
+            log.debug("Idempotency key {} already stored", scopedKey);
+        }
+        cache.put(scopedKey, stored);
+        return stored;
+    }
+    
+    private static boolean isFinal(HttpStatusCode status) {
+        return status.is2xxSuccessful()
+                || (status.is4xxClientError() && !TRANSIENT_CLIENT_ERRORS.contains(status.value()));
+    }
+    
+    private ResponseEntity<?> replay(StoredResponse stored, String requestHash) {
+        if (!stored.requestHash.equals(requestHash)) {
+            return ResponseEntity.unprocessableEntity()
+                    .body(Map.of("message", "Idempotency-Key was already used with a different request"));
+        }
+        ResponseEntity.BodyBuilder builder = ResponseEntity.status(stored.statusCode).header(REPLAYED_HEADER, "true");
+        if (stored.body == null) {
+            return builder.build();
+        }
+        return builder.contentType(MediaType.APPLICATION_JSON).body(stored.body);
+    }
+    
+    private String hash(Object request) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(request);
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(json));
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Unable to fingerprint request", e);
+        }
+    }
+    
+    private static final class StoredResponse {
+        private final String requestHash;
+        private final int statusCode;
+        private final String body;
+        private final LocalDateTime createdAt;
+        
+        private StoredResponse(String requestHash, int statusCode, String body, LocalDateTime createdAt) {
+            this.requestHash = requestHash;
+            this.statusCode = statusCode;
+            this.body = body;
+            this.createdAt = createdAt;
+        }
+    }
+}
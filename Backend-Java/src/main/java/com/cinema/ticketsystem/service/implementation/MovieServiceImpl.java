@@ -13,6 +13,10 @@ import com.cinema.ticketsystem.repository.MovieRepository;
 import com.cinema.ticketsystem.repository.ReviewRepository;
 import com.cinema.ticketsystem.repository.UserRepository;
 import com.cinema.ticketsystem.service.MovieService;
+import com.cinema.ticketsystem.service.ScreeningScheduleService;
+import com.cinema.ticketsystem.service.ScreeningService;
+import com.cinema.ticketsystem.service.SeatInventoryService;
+import com.cinema.ticketsystem.service.ShowtimeService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -20,6 +24,7 @@ import org.springframework.transaction.annotation.Transactional;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -32,6 +37,10 @@ public class MovieServiceImpl implements MovieService {
     private final UserRepository userRepository;
     private final MovieMapper movieMapper;
     private final ReviewMapper reviewMapper;
+    private final ScreeningScheduleService screeningScheduleService;
+    private final ShowtimeService showtimeService;
+    private final ScreeningService screeningService;
+    private final SeatInventoryService seatInventoryService;
     
     @Transactional(readOnly = true)
     public List<MovieDTO> getAllActiveMovies() {
@@ -121,9 +130,15 @@ public class MovieServiceImpl implements MovieService {
         Movie movie = movieRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Movie not found with id: " + id));
         
-        if (request.getTitle() != null) movie.setTitle(request.getTitle());
+        if (request.getTitle() != null && !request.getTitle().equals(movie.getTitle())) {
+            movie.setTitle(request.getTitle());
+            showtimeService.invalidateAll();
+        }
         if (request.getDescription() != null) movie.setDescription(request.getDescription());
-        if (request.getDurationMinutes() != null) movie.setDurationMinutes(request.getDurationMinutes());
+        if (request.getDurationMinutes() != null && !request.getDurationMinutes().equals(movie.getDurationMinutes())) {
+            movie.setDurationMinutes(request.getDurationMinutes());
+            screeningScheduleService.invalidateAll();
+        }
         if (request.getGenre() != null) movie.setGenre(request.getGenre());
         if (request.getRating() != null) movie.setRating(request.getRating());
         if (request.getDirector() != null) movie.setDirector(request.getDirector());
@@ -133,6 +148,9 @@ public class MovieServiceImpl implements MovieService {
         if (request.getReleaseDate() != null) movie.setReleaseDate(request.getReleaseDate());    
 
 
+        // Screening ETags carry the seat state generation, so any movie edit starts a new one
+        seatInventoryService.evictMovie(id);
+        
         @SuppressWarnings("null")
         Movie updatedMovie = movieRepository.save(movie);
         return movieMapper.toDTO(updatedMovie);
@@ -152,7 +170,13 @@ public class MovieServiceImpl implements MovieService {
     @SuppressWarnings("null")
     @Transactional
     public void deleteMovie(Long id) {
-        movieRepository.deleteById(id);
+        if (id == null || !movieRepository.existsById(id)) {
+            return;
+        }
+        // Children first with set-based deletes; the JPA cascade would load every screening and reservation
+        screeningService.deleteScreeningsForMovie(id);
+        reviewRepository.deleteAllForMovie(id);
+        movieRepository.deleteAllByIdInBatch(List.of(id));
     }
     
     // Review Methods
@@ -236,6 +260,11 @@ public class MovieServiceImpl implements MovieService {
                 .collect(Collectors.toList());
     }
     
+    @Transactional
+    public void refreshAverageRatings(Collection<Long> movieIds) {
+        movieIds.forEach(this::updateMovieAverageRating);
+    }
+    
     private void updateMovieAverageRating(Long movieId) {
         List<Review> reviews = reviewRepository.findByMovieId(movieId);
         @SuppressWarnings("null")
@@ -1,22 +1,41 @@
 package com.cinema.ticketsystem.service.implementation;
 
+import com.cinema.ticketsystem.dto.CheckoutRequest;
+import com.cinema.ticketsystem.dto.CreateBatchReservationRequest;
 import com.cinema.ticketsystem.dto.CreateReservationRequest;
 import com.cinema.ticketsystem.dto.ReservationDTO;
+import com.cinema.ticketsystem.dto.SeatConflictDTO;
+import com.cinema.ticketsystem.dto.SeatPosition;
+import com.cinema.ticketsystem.exception.SeatConflictException;
+import com.cinema.ticketsystem.inventory.ScreeningSeatState;
+import com.cinema.ticketsystem.inventory.SeatMutationExecutor;
 import com.cinema.ticketsystem.mapper.ReservationMapper;
 import com.cinema.ticketsystem.model.Reservation;
 import com.cinema.ticketsystem.model.Screening;
+import com.cinema.ticketsystem.model.SeatHold;
 import com.cinema.ticketsystem.model.User;
 import com.cinema.ticketsystem.repository.ReservationRepository;
 import com.cinema.ticketsystem.repository.ScreeningRepository;
+import com.cinema.ticketsystem.repository.SeatHoldRepository;
+import com.cinema.ticketsystem.service.HoldExpiryService;
 import com.cinema.ticketsystem.service.ReservationService;
+import com.cinema.ticketsystem.service.SeatCounterService;
+import com.cinema.ticketsystem.service.SeatInventoryService;
 import com.cinema.ticketsystem.service.UserService;
 import jakarta.persistence.OptimisticLockException;
 import lombok.RequiredArgsConstructor;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -27,56 +46,242 @@ public class ReservationServiceImpl implements ReservationService {
     private final ScreeningRepository screeningRepository;
     private final UserService userService;
     private final ReservationMapper reservationMapper;
+    private final SeatInventoryService seatInventoryService;
+    private final SeatHoldRepository seatHoldRepository;
+    private final HoldExpiryService holdExpiryService;
+    private final SeatCounterService seatCounterService;
+    private final SeatMutationExecutor seatMutationExecutor;
+    private final TransactionTemplate transactionTemplate;
     
-    @Transactional
     public ReservationDTO createReservation(Long userId, CreateReservationRequest request) {
         Long screeningId = request.getScreeningId();
         if (screeningId == null) {
             throw new IllegalArgumentException("Screening ID cannot be null");
         }
-        Screening screening = screeningRepository.findById(screeningId)
+        int row = request.getRow();
+        int seat = request.getSeat();
+        
+        // Seat writes for a screening are serialized on its writer thread, so the in-memory
+        // inventory is authoritative here and conflicts are caught before any SQL is issued
+        return seatMutationExecutor.execute(screeningId, () -> {
+            ScreeningSeatState state = seatInventoryService.getState(screeningId);
+            
+            // Validate seat position
+            if (!state.isValidSeat(row, seat)) {
+                throw new IllegalArgumentException("Invalid seat position");
+            }
+            if (state.isReserved(row, seat)) {
+                throw new RuntimeException("This seat is already reserved. Please select another seat.");
+            }
+            boolean held = state.isHeld(row, seat);
+            
+            try {
+                return transactionTemplate.execute(status -> insertReservation(userId, screeningId, row, seat, held));
+            } catch (DataIntegrityViolationException e) {
+                // Unique constraint stays as a backstop, e.g. for writes from another instance
+                throw new RuntimeException("This seat is already reserved. Please select another seat.");
+            } catch (OptimisticLockException e) {
+                throw new RuntimeException("This seat was just reserved by another user. Please select another seat.");
+            }
+        });
+    }
+    
+    private ReservationDTO insertReservation(Long userId, Long screeningId, int row, int seat, boolean held) {
+        int consumedHolds = 0;
+        if (held) {
+            // Only the customer holding the seat may reserve it; their hold is consumed
+            SeatHold hold = seatHoldRepository.findByScreeningIdAndRowAndSeatAndIsActiveTrue(screeningId, row, seat)
+                    .orElse(null);
+            if (hold != null) {
+                if (!hold.getUser().getId().equals(userId)) {
+                    throw new RuntimeException("This seat is already held by another customer. Please select another seat.");
+                }
+                seatHoldRepository.deleteHolds(List.of(hold.getId()));
+                holdExpiryService.untrack(List.of(hold.getId()));
+                consumedHolds = 1;
+            }
+        }
+        
+        Screening screening = screeningRepository.findWithCinemaAndMovieById(screeningId)
                 .orElseThrow(() -> new RuntimeException("Screening not found"));
+        User user = userService.getUserEntityById(userId);
+        
+        Reservation reservation = new Reservation();
+        reservation.setUser(user);
+        reservation.setScreening(screening);
+        reservation.setRow(row);
+        reservation.setSeat(seat);
+        
+        Reservation savedReservation = reservationRepository.save(reservation);
+        seatCounterService.adjust(screeningId, 1, -consumedHolds);
+        seatInventoryService.markReserved(screeningId, List.of(new SeatPosition(row, seat)));
+        return reservationMapper.toDTO(savedReservation);
+    }
+    
+    public List<ReservationDTO> createReservations(Long userId, CreateBatchReservationRequest request) {
+        Long screeningId = request.getScreeningId();
+        if (screeningId == null) {
+            throw new IllegalArgumentException("Screening ID cannot be null");
+        }
+        
+        return seatMutationExecutor.execute(screeningId, () -> {
+            ScreeningSeatState state = seatInventoryService.getState(screeningId);
+            
+            // Validate every seat in one pass before touching the database
+            Set<SeatPosition> requested = new LinkedHashSet<>();
+            for (SeatPosition position : request.getSeats()) {
+                if (position.getRow() == null || position.getSeat() == null
+                        || !state.isValidSeat(position.getRow(), position.getSeat())) {
+                    throw new IllegalArgumentException("Invalid seat position: Row " + position.getRow()
+                            + ", Seat " + position.getSeat());
+                }
+                if (!requested.add(position)) {
+                    throw new IllegalArgumentException("Duplicate seat: Row " + position.getRow()
+                            + ", Seat " + position.getSeat());
+                }
+            }
+            
+            try {
+                return transactionTemplate.execute(status -> insertReservations(userId, screeningId, state, requested));
+            } catch (DataIntegrityViolationException e) {
+                throw new RuntimeException("One or more seats are already reserved. Please select other seats.");
+            }
+        });
+    }
+    
+    private List<ReservationDTO> insertReservations(Long userId, Long screeningId, ScreeningSeatState state,
+                                                    Set<SeatPosition> requested) {
+        // Seats held by this user are consumed; seats held by anyone else are conflicts
+        Map<SeatPosition, SeatHold> ownHolds = seatHoldRepository.findByUserIdAndIsActiveTrue(userId).stream()
+                .filter(h -> h.getScreening().getId().equals(screeningId))
+                .collect(Collectors.toMap(h -> new SeatPosition(h.getRow(), h.getSeat()), Function.identity(),
+                        (first, second) -> first));
         
+        List<SeatConflictDTO> conflicts = new ArrayList<>();
+        List<Long> consumedHoldIds = new ArrayList<>();
+        for (SeatPosition position : requested) {
+            byte seatStatus = state.getStatus(position.getRow(), position.getSeat());
+            if (seatStatus == ScreeningSeatState.RESERVED) {
+                conflicts.add(new SeatConflictDTO(position.getRow(), position.getSeat(), "RESERVED"));
+            } else if (seatStatus == ScreeningSeatState.HELD) {
+                SeatHold hold = ownHolds.get(position);
+                if (hold == null) {
+                    conflicts.add(new SeatConflictDTO(position.getRow(), position.getSeat(), "HELD"));
+                } else {
+                    consumedHoldIds.add(hold.getId());
+                }
+            }
+        }
+        if (!conflicts.isEmpty()) {
+            throw new SeatConflictException(conflicts);
+        }
+        
+        Screening screening = screeningRepository.findWithCinemaAndMovieById(screeningId)
+                .orElseThrow(() -> new RuntimeException("Screening not found"));
         User user = userService.getUserEntityById(userId);
         
-        // Validate seat position
-        if (request.getRow() < 1 || request.getRow() > screening.getCinema().getRows() ||
-            request.getSeat() < 1 || request.getSeat() > screening.getCinema().getSeatsPerRow()) {
-            throw new IllegalArgumentException("Invalid seat position");
+        List<Reservation> reservations = new ArrayList<>(requested.size());
+        for (SeatPosition position : requested) {
+            Reservation reservation = new Reservation();
+            reservation.setUser(user);
+            reservation.setScreening(screening);
+            reservation.setRow(position.getRow());
+            reservation.setSeat(position.getSeat());
+            reservations.add(reservation);
         }
         
-        // Check if seat is already reserved (handled by unique constraint, but checking here for better error message)
-        if (reservationRepository.existsByScreeningIdAndRowAndSeat(
-                request.getScreeningId(), request.getRow(), request.getSeat())) {
-            throw new RuntimeException("This seat is already reserved. Please select another seat.");
+        List<Reservation> savedReservations = reservationRepository.saveAll(reservations);
+        seatCounterService.adjust(screeningId, reservations.size(), -consumedHoldIds.size());
+        if (!consumedHoldIds.isEmpty()) {
+            seatHoldRepository.deleteHolds(consumedHoldIds);
+            holdExpiryService.untrack(consumedHoldIds);
         }
+        seatInventoryService.markReserved(screeningId, new ArrayList<>(requested));
         
-        Reservation reservation = new Reservation();
-        reservation.setUser(user);
-        reservation.setScreening(screening);
-        reservation.setRow(request.getRow());
-        reservation.setSeat(request.getSeat());
-        
-        try {
-            Reservation savedReservation = reservationRepository.save(reservation);
-            return reservationMapper.toDTO(savedReservation);
-        } catch (DataIntegrityViolationException e) {
-            // This handles concurrent reservations of the same seat
-            throw new RuntimeException("This seat is already reserved. Please select another seat.");
-        } catch (OptimisticLockException e) {
-            throw new RuntimeException("This seat was just reserved by another user. Please select another seat.");
+        return savedReservations.stream()
+                .map(reservationMapper::toDTO)
+                .collect(Collectors.toList());
+    }
+    
+    public List<ReservationDTO> checkout(Long userId, CheckoutRequest request) {
+        Set<Long> holdIds = new HashSet<>(request.getHoldIds());
+        if (holdIds.contains(null)) {
+            throw new IllegalArgumentException("Hold ID cannot be null");
+        }
+        
+        List<SeatHold> holds = seatHoldRepository.findAllById(holdIds);
+        if (holds.size() != holdIds.size()) {
+            throw new IllegalArgumentException("Hold not found");
         }
+        Set<Long> screeningIds = holds.stream().map(h -> h.getScreening().getId()).collect(Collectors.toSet());
+        if (screeningIds.size() != 1) {
+            throw new IllegalArgumentException("All holds in a checkout must belong to the same screening");
+        }
+        Long screeningId = screeningIds.iterator().next();
+        
+        // One writer-thread task and one transaction for the whole order
+        return seatMutationExecutor.execute(screeningId, () -> transactionTemplate.execute(status ->
+                convertHolds(userId, screeningId, holdIds)));
     }
     
-    @Transactional
-    public void deleteReservation(Long userId, Long screeningId, Integer row, Integer seat) {
-        Reservation reservation = reservationRepository
-                .findByUserIdAndScreeningIdAndRowAndSeat(userId, screeningId, row, seat)
-                .orElseThrow(() -> new RuntimeException("Reservation not found"));
+    private List<ReservationDTO> convertHolds(Long userId, Long screeningId, Set<Long> holdIds) {
+        // Re-read on the writer thread so holds released or expired since the first read are rejected
+        List<SeatHold> holds = seatHoldRepository.findAllById(holdIds);
+        if (holds.size() != holdIds.size()) {
+            throw new RuntimeException("Some holds have expired or were released. Please select your seats again.");
+        }
+        LocalDateTime now = LocalDateTime.now();
+        for (SeatHold hold : holds) {
+            if (!hold.getUser().getId().equals(userId)) {
+                throw new RuntimeException("You can only check out your own holds");
+            }
+            if (!Boolean.TRUE.equals(hold.getIsActive()) || !hold.getExpiresAt().isAfter(now)) {
+                throw new RuntimeException("Some holds have expired or were released. Please select your seats again.");
+            }
+        }
         
-        if (reservation != null) {
-            reservationRepository.delete(reservation);
+        Screening screening = screeningRepository.findWithCinemaAndMovieById(screeningId)
+                .orElseThrow(() -> new RuntimeException("Screening not found"));
+        
+        List<Reservation> reservations = new ArrayList<>(holds.size());
+        List<SeatPosition> positions = new ArrayList<>(holds.size());
+        for (SeatHold hold : holds) {
+            Reservation reservation = new Reservation();
+            reservation.setUser(hold.getUser());
+            reservation.setScreening(screening);
+            reservation.setRow(hold.getRow());
+            reservation.setSeat(hold.getSeat());
+            reservations.add(reservation);
+            positions.add(new SeatPosition(hold.getRow(), hold.getSeat()));
         }
+        
+        // Pooled ids and JDBC batching turn these into a handful of statements
+        List<Reservation> savedReservations = reservationRepository.saveAll(reservations);
+        List<Long> ids = new ArrayList<>(holdIds);
+        seatHoldRepository.deleteHolds(ids);
+        seatCounterService.adjust(screeningId, reservations.size(), -ids.size());
+        holdExpiryService.untrack(ids);
+        seatInventoryService.markReserved(screeningId, positions);
+        
+        return savedReservations.stream()
+                .map(reservationMapper::toDTO)
+                .collect(Collectors.toList());
+    }
+    
+    public void deleteReservation(Long userId, Long screeningId, Integer row, Integer seat) {
+        if (screeningId == null) {
+            throw new IllegalArgumentException("Screening ID cannot be null");
+        }
+        seatMutationExecutor.execute(screeningId, () -> transactionTemplate.execute(status -> {
+            Reservation reservation = reservationRepository
+                    .findByUserIdAndScreeningIdAndRowAndSeat(userId, screeningId, row, seat)
+                    .orElseThrow(() -> new RuntimeException("Reservation not found"));
+            
+            reservationRepository.delete(reservation);
+            seatCounterService.adjust(screeningId, -1, 0);
+            seatInventoryService.releaseReserved(screeningId, List.of(new SeatPosition(row, seat)));
+            return null;
+        }));
     }
     
     public List<ReservationDTO> getUserReservations(Long userId) {
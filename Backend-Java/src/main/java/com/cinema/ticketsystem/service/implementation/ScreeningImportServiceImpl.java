@@ -0,0 +1,280 @@
+package com.cinema.ticketsystem.service.implementation;
+
+import com.cinema.ticketsystem.dto.CreateScreeningRequest;
+import com.cinema.ticketsystem.dto.ScreeningImportLineDTO;
+import com.cinema.ticketsystem.dto.ScreeningImportReportDTO;
+import com.cinema.ticketsystem.model.Cinema;
+import com.cinema.ticketsystem.model.Movie;
+import com.cinema.ticketsystem.model.Screening;
+import com.cinema.ticketsystem.repository.CinemaRepository;
+import com.cinema.ticketsystem.repository.MovieRepository;
+import com.cinema.ticketsystem.repository.ScreeningRepository;
+import com.cinema.ticketsystem.service.ScreeningImportService;
+import com.cinema.ticketsystem.service.ScreeningScheduleService;
+import com.cinema.ticketsystem.service.ShowtimeService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Imports screenings from NDJSON or CSV, reading the input line by line.
+ * Lines are processed in chunks: the chunk's cinemas and movies are resolved with one query
+ * each into a cache shared by the whole import, every line is checked against the schedule
+ * index, and the accepted screenings of a chunk are inserted in JDBC batches in one transaction.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ScreeningImportServiceImpl implements ScreeningImportService {
+    
+    private static final int CHUNK_SIZE = 500;
+    private static final int MAX_LINES = 50000;
+    private static final BigDecimal MIN_TICKET_PRICE = new BigDecimal("0.01");
+    private static final List<String> CSV_COLUMNS = List.of("cinemaId", "movieId", "startDateTime", "ticketPrice");
+    
+    private final ScreeningRepository screeningRepository;
+    private final CinemaRepository cinemaRepository;
+    private final MovieRepository movieRepository;
+    private final ScreeningScheduleService screeningScheduleService;
+    private final ShowtimeService showtimeService;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    public ScreeningImportReportDTO importScreenings(InputStream input, String format) {
+        boolean csv = FORMAT_CSV.equalsIgnoreCase(format);
+        if (!csv && !FORMAT_NDJSON.equalsIgnoreCase(format)) {
+            throw new RuntimeException("Unsupported import format: " + format);
+        }
+        
+        long started = System.currentTimeMillis();
+        Map<Long, Cinema> cinemas = new HashMap<>();
+        Map<Long, Movie> movies = new HashMap<>();
+        List<ScreeningImportLineDTO> results = new ArrayList<>();
+        List<ImportRow> chunk = new ArrayList<>(CHUNK_SIZE);
+        int[] columns = null;
+        long truncatedAtLine = 0;
+        
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            String line;
+            long lineNumber = 0;
+            int rows = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                if (csv && columns == null) {
+                    columns = parseCsvHeader(line);
+                    continue;
+                }
+                if (++rows > MAX_LINES) {
+                    // Earlier chunks are already committed, so report them instead of failing the import
+                    truncatedAtLine = lineNumber;
+                    break;
+                }
+                chunk.add(csv ? parseCsvLine(lineNumber, line, columns) : parseJsonLine(lineNumber, line));
+                if (chunk.size() == CHUNK_SIZE) {
+                    results.addAll(importChunk(chunk, cinemas, movies));
+                    chunk.clear();
+                }
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Could not read import: " + e.getMessage());
+        }
+        if (!chunk.isEmpty()) {
+            results.addAll(importChunk(chunk, cinemas, movies));
+        }
+        boolean truncated = truncatedAtLine > 0;
+        if (truncated) {
+            results.add(rejected(truncatedAtLine, "At most " + MAX_LINES
+                    + " screenings can be imported at once; this line and the rest of the input were not imported"));
+        }
+        
+        int created = (int) results.stream().filter(result -> "CREATED".equals(result.getStatus())).count();
+        long duration = System.currentTimeMillis() - started;
+        log.info("Imported {} of {} screenings in {} ms", created, results.size(), duration);
+        return new ScreeningImportReportDTO(results.size(), created, results.size() - created, duration, results,
+                truncated);
+    }
+    
+    private List<ScreeningImportLineDTO> importChunk(List<ImportRow> chunk, Map<Long, Cinema> cinemas,
+                                                     Map<Long, Movie> movies) {
+        resolve(chunk, cinemas, movies);
+        
+        List<ScreeningImportLineDTO> results = new ArrayList<>(chunk.size());
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                List<Screening> created = new ArrayList<>();
+                for (ImportRow row : chunk) {
+                    results.add(importRow(row, cinemas, movies, created));
+                }
+                // Showtime days are merged once per committed chunk, not once per line
+                showtimeService.screeningsCreated(created);
+                // Sends the chunk's inserts in batches and keeps the persistence context small
+                entityManager.flush();
+                entityManager.clear();
+            });
+        } catch (RuntimeException e) {
+            // A concurrent schedule change or a database error rolls back the whole chunk
+            log.warn("Screening import chunk starting at line {} failed: {}", chunk.get(0).lineNumber(), e.getMessage());
+            for (int i = 0; i < chunk.size(); i++) {
+                if (i < results.size() && "REJECTED".equals(results.get(i).getStatus())) {
+                    continue;
+                }
+                ScreeningImportLineDTO rejected = rejected(chunk.get(i).lineNumber(), "Not imported: " + e.getMessage());
+                if (i < results.size()) {
+                    results.set(i, rejected);
+                } else {
+                    results.add(rejected);
+                }
+            }
+        }
+        return results;
+    }
+    
+    private ScreeningImportLineDTO importRow(ImportRow row, Map<Long, Cinema> cinemas, Map<Long, Movie> movies,
+                                             List<Screening> created) {
+        if (row.error() != null) {
+            return rejected(row.lineNumber(), row.error());
+        }
+        CreateScreeningRequest request = row.request();
+        if (request.getCinemaId() == null || request.getMovieId() == null
+                || request.getStartDateTime() == null || request.getTicketPrice() == null) {
+            return rejected(row.lineNumber(), "cinemaId, movieId, startDateTime and ticketPrice are required");
+        }
+        if (request.getTicketPrice().compareTo(MIN_TICKET_PRICE) < 0) {
+            return rejected(row.lineNumber(), "Ticket price must be at least " + MIN_TICKET_PRICE);
+        }
+        if (screeningScheduleService.isInPast(request.getStartDateTime())) {
+            return rejected(row.lineNumber(), "Screenings cannot start in the past");
+        }
+        Cinema cinema = cinemas.get(request.getCinemaId());
+        if (cinema == null) {
+            return rejected(row.lineNumber(), "Cinema not found");
+        }
+        Movie movie = movies.get(request.getMovieId());
+        if (movie == null) {
+            return rejected(row.lineNumber(), "Movie not found");
+        }
+        
+        List<Long> conflicts = screeningScheduleService.findConflicts(cinema.getId(), request.getStartDateTime(),
+                movie.getDurationMinutes());
+        if (!conflicts.isEmpty()) {
+            ScreeningImportLineDTO result = rejected(row.lineNumber(), "Overlaps " + conflicts.size() + " screening(s)");
+            result.setConflictingScreeningIds(conflicts);
+            return result;
+        }
+        
+        Screening screening = new Screening();
+        screening.setCinema(cinema);
+        screening.setMovie(movie);
+        screening.setStartDateTime(request.getStartDateTime());
+        screening.setTicketPrice(request.getTicketPrice());
+        screeningRepository.save(screening);
+        screeningScheduleService.register(screening);
+        created.add(screening);
+        return new ScreeningImportLineDTO(row.lineNumber(), "CREATED", screening.getId(), null, null);
+    }
+    
+    // Loads only the ids this import has not seen yet
+    private void resolve(List<ImportRow> chunk, Map<Long, Cinema> cinemas, Map<Long, Movie> movies) {
+        Set<Long> cinemaIds = chunk.stream()
+                .filter(row -> row.request() != null && row.request().getCinemaId() != null)
+                .map(row -> row.request().getCinemaId())
+                .filter(id -> !cinemas.containsKey(id))
+                .collect(Collectors.toSet());
+        Set<Long> movieIds = chunk.stream()
+                .filter(row -> row.request() != null && row.request().getMovieId() != null)
+                .map(row -> row.request().getMovieId())
+                .filter(id -> !movies.containsKey(id))
+                .collect(Collectors.toSet());
+        if (!cinemaIds.isEmpty()) {
+            cinemaRepository.findAllById(cinemaIds).forEach(cinema -> cinemas.put(cinema.getId(), cinema));
+        }
+        if (!movieIds.isEmpty()) {
+            movieRepository.findAllById(movieIds).forEach(movie -> movies.put(movie.getId(), movie));
+        }
+    }
+    
+    private ImportRow parseJsonLine(long lineNumber, String line) {
+        try {
+            return new ImportRow(lineNumber, objectMapper.readValue(line, CreateScreeningRequest.class), null);
+        } catch (JsonProcessingException e) {
+            return new ImportRow(lineNumber, null, "Invalid JSON: " + e.getOriginalMessage());
+        }
+    }
+    
+    /**
+     * Maps the header to the column positions of cinemaId, movieId, startDateTime and ticketPrice.
+     */
+    private int[] parseCsvHeader(String line) {
+        String[] names = line.split(",", -1);
+        int[] columns = new int[CSV_COLUMNS.size()];
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = -1;
+            for (int j = 0; j < names.length; j++) {
+                if (names[j].trim().equalsIgnoreCase(CSV_COLUMNS.get(i))) {
+                    columns[i] = j;
+                }
+            }
+            if (columns[i] < 0) {
+                throw new RuntimeException("CSV header must contain " + String.join(",", CSV_COLUMNS));
+            }
+        }
+        return columns;
+    }
+    
+    private ImportRow parseCsvLine(long lineNumber, String line, int[] columns) {
+        String[] values = line.split(",", -1);
+        try {
+            CreateScreeningRequest request = new CreateScreeningRequest();
+            request.setCinemaId(Long.valueOf(csvValue(values, columns[0])));
+            request.setMovieId(Long.valueOf(csvValue(values, columns[1])));
+            request.setStartDateTime(LocalDateTime.parse(csvValue(values, columns[2])));
+            request.setTicketPrice(new BigDecimal(csvValue(values, columns[3])));
+            return new ImportRow(lineNumber, request, null);
+        } catch (RuntimeException e) {
+            return new ImportRow(lineNumber, null, "Invalid CSV line: " + e.getMessage());
+        }
+    }
+    
+    private static String csvValue(String[] values, int column) {
+        if (column >= values.length) {
+            throw new IllegalArgumentException("missing column " + (column + 1));
+        }
+        String value = values[column].trim();
+        if (value.length() >= 2 && value.startsWith("\"") && value.endsWith("\"")) {
+            value = value.substring(1, value.length() - 1);
+        }
+        return value;
+    }
+    
+    private static ScreeningImportLineDTO rejected(long lineNumber, String message) {
+        return new ScreeningImportLineDTO(lineNumber, "REJECTED", null, null, message);
+    }
+    
+    private record ImportRow(long lineNumber, CreateScreeningRequest request, String error) {
+    }
+}
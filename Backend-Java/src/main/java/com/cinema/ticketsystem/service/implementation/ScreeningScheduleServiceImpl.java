@@ -0,0 +1,239 @@
+package com.cinema.ticketsystem.service.implementation;
+
+import com.cinema.ticketsystem.dto.CreateScreeningRequest;
+import com.cinema.ticketsystem.dto.ScheduleValidationResultDTO;
+import com.cinema.ticketsystem.inventory.AfterCommit;
+import com.cinema.ticketsystem.inventory.CinemaSchedule;
+import com.cinema.ticketsystem.model.Cinema;
+import com.cinema.ticketsystem.model.Movie;
+import com.cinema.ticketsystem.model.Screening;
+import com.cinema.ticketsystem.repository.CinemaRepository;
+import com.cinema.ticketsystem.repository.MovieRepository;
+import com.cinema.ticketsystem.repository.ScreeningRepository;
+import com.cinema.ticketsystem.service.ScreeningScheduleService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps one {@link CinemaSchedule} per cinema in memory so overlap checks for new
+ * screenings never scan the screenings table. Schedules are loaded lazily with the
+ * screenings that have not ended yet and kept in sync by create and delete. Since ended
+ * slots are not kept, screenings can only be scheduled to start in the future.
+ */
+@Slf4j
+@Service
+public class ScreeningScheduleServiceImpl implements ScreeningScheduleService {
+    
+    private static final int MAX_BATCH_SIZE = 2000;
+    private static final String PAST_START_MESSAGE = "Screenings cannot start in the past";
+    
+    private final ScreeningRepository screeningRepository;
+    private final MovieRepository movieRepository;
+    private final CinemaRepository cinemaRepository;
+    private final int cleaningBufferMinutes;
+    
+    private final Map<Long, CinemaSchedule> schedules = new ConcurrentHashMap<>();
+    
+    public ScreeningScheduleServiceImpl(ScreeningRepository screeningRepository,
+                                        MovieRepository movieRepository,
+                                        CinemaRepository cinemaRepository,
+                                        @Value("${app.screenings.cleaning-buffer-minutes:15}") int cleaningBufferMinutes) {
+        this.screeningRepository = screeningRepository;
+        this.movieRepository = movieRepository;
+        this.cinemaRepository = cinemaRepository;
+        this.cleaningBufferMinutes = cleaningBufferMinutes;
+    }
+    
+    /**
+     * Claims the screening's slot, failing if it overlaps another screening of the cinema.
+     * The claim is dropped again if the surrounding transaction does not commit. A cold schedule
+     * loaded here already sees the flushed insert of this screening, which is not a conflict.
+     */
+    public void register(Screening screening) {
+        Long screeningId = screening.getId();
+        LocalDateTime start = screening.getStartDateTime();
+        if (isInPast(start)) {
+            throw new RuntimeException(PAST_START_MESSAGE);
+        }
+        CinemaSchedule schedule = getSchedule(screening.getCinema().getId());
+        
+        // Registered first, so a slot picked up by the load above is dropped on rollback as well
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        schedule.remove(screeningId);
+                    }
+                }
+            });
+        }
+        
+        List<CinemaSchedule.Slot> conflicts = schedule.addIfFree(screeningId, start,
+                slotEnd(start, screening.getMovie().getDurationMinutes()));
+        if (!conflicts.isEmpty()) {
+            throw new RuntimeException("Screening overlaps screening(s) " + conflicts.stream()
+                    .map(slot -> slot.screeningId().toString())
+                    .collect(Collectors.joining(", ")) + " in this cinema");
+        }
+    }
+    
+    public void unregister(Long cinemaId, Long screeningId) {
+        AfterCommit.run(() -> {
+            CinemaSchedule schedule = schedules.get(cinemaId);
+            if (schedule != null) {
+                schedule.remove(screeningId);
+            }
+        });
+    }
+    
+    // Slot lengths depend on film durations, so a duration change reloads every schedule
+    public void invalidateAll() {
+        AfterCommit.run(schedules::clear);
+    }
+    
+    public List<Long> findConflicts(Long cinemaId, LocalDateTime startDateTime, int durationMinutes) {
+        return getSchedule(cinemaId).findOverlapping(startDateTime, slotEnd(startDateTime, durationMinutes)).stream()
+                .map(CinemaSchedule.Slot::screeningId)
+                .collect(Collectors.toList());
+    }
+    
+    public LocalDateTime findNextFreeSlot(Long cinemaId, Long movieId, LocalDateTime from) {
+        if (cinemaId == null || movieId == null) {
+            throw new RuntimeException("Cinema ID and movie ID are required");
+        }
+        if (!cinemaRepository.existsById(cinemaId)) {
+            throw new RuntimeException("Cinema not found");
+        }
+        Movie movie = movieRepository.findById(movieId)
+                .orElseThrow(() -> new RuntimeException("Movie not found"));
+        LocalDateTime start = from != null ? from : LocalDateTime.now();
+        return getSchedule(cinemaId).findNextFree(start, movie.getDurationMinutes() + cleaningBufferMinutes);
+    }
+    
+    /**
+     * Checks a batch of planned screenings against the current schedules and against the
+     * earlier entries of the same batch, without creating anything.
+     */
+    public List<ScheduleValidationResultDTO> validateSchedule(List<CreateScreeningRequest> requests) {
+        if (requests == null || requests.isEmpty()) {
+            throw new RuntimeException("At least one screening is required");
+        }
+        if (requests.size() > MAX_BATCH_SIZE) {
+            throw new RuntimeException("At most " + MAX_BATCH_SIZE + " screenings can be validated at once");
+        }
+        Set<Long> movieIds = requests.stream().map(CreateScreeningRequest::getMovieId)
+                .filter(Objects::nonNull).collect(Collectors.toSet());
+        Set<Long> cinemaIds = requests.stream().map(CreateScreeningRequest::getCinemaId)
+                .filter(Objects::nonNull).collect(Collectors.toSet());
+        Map<Long, Movie> movies = movieRepository.findAllById(movieIds).stream()
+                .collect(Collectors.toMap(Movie::getId, Function.identity()));
+        Set<Long> cinemas = cinemaRepository.findAllById(cinemaIds).stream()
+                .map(Cinema::getId).collect(Collectors.toSet());
+        
+        // Accepted entries go into per-cinema drafts under negative ids, -(index + 1)
+        Map<Long, CinemaSchedule> drafts = new HashMap<>();
+        List<ScheduleValidationResultDTO> results = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            CreateScreeningRequest request = requests.get(i);
+            ScheduleValidationResultDTO result = new ScheduleValidationResultDTO();
+            result.setIndex(i);
+            result.setCinemaId(request.getCinemaId());
+            result.setMovieId(request.getMovieId());
+            result.setStartDateTime(request.getStartDateTime());
+            result.setValid(false);
+            results.add(result);
+            
+            Movie movie = movies.get(request.getMovieId());
+            if (request.getStartDateTime() == null) {
+                result.setMessage("Start date time is required");
+                continue;
+            }
+            if (isInPast(request.getStartDateTime())) {
+                result.setMessage(PAST_START_MESSAGE);
+                continue;
+            }
+            if (!cinemas.contains(request.getCinemaId())) {
+                result.setMessage("Cinema not found");
+                continue;
+            }
+            if (movie == null) {
+                result.setMessage("Movie not found");
+                continue;
+            }
+            
+            LocalDateTime end = slotEnd(request.getStartDateTime(), movie.getDurationMinutes());
+            result.setEndDateTime(end);
+            CinemaSchedule draft = drafts.computeIfAbsent(request.getCinemaId(), id -> getSchedule(id).copy());
+            List<CinemaSchedule.Slot> conflicts = draft.addIfFree(-(i + 1L), request.getStartDateTime(), end);
+            
+            List<Long> screeningIds = new ArrayList<>();
+            List<Integer> indexes = new ArrayList<>();
+            for (CinemaSchedule.Slot slot : conflicts) {
+                if (slot.screeningId() < 0) {
+                    indexes.add((int) (-slot.screeningId() - 1));
+                } else {
+                    screeningIds.add(slot.screeningId());
+                }
+            }
+            result.setConflictingScreeningIds(screeningIds);
+            result.setConflictingIndexes(indexes);
+            result.setValid(conflicts.isEmpty());
+            if (!conflicts.isEmpty()) {
+                result.setMessage("Overlaps " + conflicts.size() + " screening(s)");
+            }
+        }
+        return results;
+    }
+    
+    @Scheduled(fixedRate = 3600000) // Run every hour
+    public void pruneEndedSlots() {
+        LocalDateTime cutoff = LocalDateTime.now();
+        schedules.values().forEach(schedule -> schedule.pruneBefore(cutoff));
+    }
+    
+    public boolean isInPast(LocalDateTime start) {
+        return start.isBefore(LocalDateTime.now());
+    }
+    
+    private CinemaSchedule getSchedule(Long cinemaId) {
+        if (cinemaId == null) {
+            throw new RuntimeException("Cinema ID cannot be null");
+        }
+        return schedules.computeIfAbsent(cinemaId, this::load);
+    }
+    
+    private CinemaSchedule load(Long cinemaId) {
+        CinemaSchedule schedule = new CinemaSchedule();
+        LocalDateTime now = LocalDateTime.now();
+        // Nothing runs longer than a day, so older screenings cannot have slots left
+        for (Object[] row : screeningRepository.findScheduleByCinemaId(cinemaId, now.minusDays(1))) {
+            LocalDateTime start = (LocalDateTime) row[1];
+            LocalDateTime end = slotEnd(start, (Integer) row[2]);
+            if (end.isAfter(now)) {
+                schedule.add((Long) row[0], start, end);
+            }
+        }
+        log.debug("Loaded schedule for cinema {}: {} slots", cinemaId, schedule.size());
+        return schedule;
+    }
+    
+    private LocalDateTime slotEnd(LocalDateTime start, int durationMinutes) {
+        return start.plusMinutes(durationMinutes + (long) cleaningBufferMinutes);
+    }
+}
@@ -1,23 +1,40 @@
 package com.cinema.ticketsystem.service.implementation;
 
 import com.cinema.ticketsystem.dto.*;
+import com.cinema.ticketsystem.inventory.AuditoriumLayout;
+import com.cinema.ticketsystem.inventory.ScreeningSeatState;
+import com.cinema.ticketsystem.inventory.SeatMutationExecutor;
 import com.cinema.ticketsystem.mapper.ScreeningDetailMapper;
 import com.cinema.ticketsystem.mapper.ScreeningMapper;
 import com.cinema.ticketsystem.model.Cinema;
 import com.cinema.ticketsystem.model.Movie;
 import com.cinema.ticketsystem.model.Screening;
 import com.cinema.ticketsystem.repository.MovieRepository;
+import com.cinema.ticketsystem.repository.PaymentRepository;
+import com.cinema.ticketsystem.repository.ReservationRepository;
 import com.cinema.ticketsystem.repository.ScreeningRepository;
+import com.cinema.ticketsystem.repository.SeatHoldRepository;
 import com.cinema.ticketsystem.service.CinemaService;
+import com.cinema.ticketsystem.service.HoldExpiryService;
+import com.cinema.ticketsystem.service.ScreeningScheduleService;
 import com.cinema.ticketsystem.service.ScreeningService;
+import com.cinema.ticketsystem.service.SeatInventoryService;
+import com.cinema.ticketsystem.service.ShowtimeService;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.Base64;
 import java.util.List;
-import java.util.stream.Collectors;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class ScreeningServiceImpl implements ScreeningService {
@@ -27,44 +44,97 @@ public class ScreeningServiceImpl implements ScreeningService {
     private final MovieRepository movieRepository;
     private final ScreeningMapper screeningMapper;
     private final ScreeningDetailMapper screeningDetailMapper;
+    private final SeatInventoryService seatInventoryService;
+    private final ScreeningScheduleService screeningScheduleService;
+    private final ShowtimeService showtimeService;
+    private final HoldExpiryService holdExpiryService;
+    private final ReservationRepository reservationRepository;
+    private final SeatHoldRepository seatHoldRepository;
+    private final PaymentRepository paymentRepository;
+    private final SeatMutationExecutor seatMutationExecutor;
+    private final TransactionTemplate transactionTemplate;
     
-    public List<ScreeningDTO> getAllScreenings() {
-        return screeningRepository.findAllByOrderByStartDateTimeAsc().stream()
-                .map(screeningMapper::toDTO)
-                .collect(Collectors.toList());
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 200;
+    
+    public ScreeningPageDTO getScreenings(LocalDateTime from, LocalDateTime to, Long cinemaId, Long movieId,
+                                          String cursor, Integer limit) {
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        
+        // Keyset position: the first page starts at 'from', later pages right after the cursor row
+        LocalDateTime afterStart = from != null ? from : LocalDateTime.now();
+        Long afterId = -1L;
+        if (cursor != null && !cursor.isBlank()) {
+            CursorPosition position = decodeCursor(cursor);
+            afterStart = position.startDateTime();
+            afterId = position.id();
+        }
+        
+        // One extra row tells whether another page exists
+        List<ScreeningDTO> screenings = new ArrayList<>(screeningRepository.findPage(
+                afterStart, afterId, to, cinemaId, movieId, PageRequest.of(0, pageSize + 1)));
+        String nextCursor = null;
+        if (screenings.size() > pageSize) {
+            screenings = screenings.subList(0, pageSize);
+            ScreeningDTO last = screenings.get(pageSize - 1);
+            nextCursor = encodeCursor(last.getStartDateTime(), last.getId());
+        }
+        return new ScreeningPageDTO(screenings, nextCursor);
+    }
+    
+    static String encodeCursor(LocalDateTime startDateTime, Long id) {
+        String position = startDateTime + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    static CursorPosition decodeCursor(String cursor) {
+        try {
+            String[] position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+            if (position.length != 2) {
+                throw new IllegalArgumentException();
+            }
+            return new CursorPosition(LocalDateTime.parse(position[0]), Long.valueOf(position[1]));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new RuntimeException("Invalid cursor");
+        }
     }
     
     public ScreeningDetailDTO getScreeningWithSeats(Long id) {
         if (id==null) {
             throw new RuntimeException("Screening ID cannot be null");
         }
-        Screening screening = screeningRepository.findById(id)
+        Screening screening = screeningRepository.findWithCinemaAndMovieById(id)
                 .orElseThrow(() -> new RuntimeException("Screening not found"));
         
-        List<SeatDTO> seats = createSeatsForScreening(screening);
+        List<SeatDTO> seats = createSeatsForScreening(seatInventoryService.getState(id));
         return screeningDetailMapper.toDTO(screening, seats);
     }
     
-    private List<SeatDTO> createSeatsForScreening(Screening screening) {
-    List<SeatDTO> seats = new ArrayList<>();
-    Cinema cinema = screening.getCinema();
+    public String getSeatMapVersionTag(Long id) {
+        if (id == null) {
+            throw new RuntimeException("Screening ID cannot be null");
+        }
+        return seatInventoryService.getState(id).getVersionTag();
+    }
     
-    for (int row = 1; row <= cinema.getRows(); row++) {
-        for (int number = 1; number <= cinema.getSeatsPerRow(); number++) {
+    /**
+     * Builds the seat list in one pass over the screening's seat statuses, which the
+     * inventory keeps as bitsets loaded from (row, seat) projections, not entities.
+     */
+    static List<SeatDTO> createSeatsForScreening(ScreeningSeatState state) {
+        AuditoriumLayout layout = state.getLayout();
+        byte[] statuses = state.getStatuses();
+        List<SeatDTO> seats = new ArrayList<>(statuses.length);
+        
+        for (int index = 0; index < statuses.length; index++) {
             SeatDTO seat = new SeatDTO();
-            seat.setRow(row);
-            seat.setSeat(number);
-            seat.setIsReserved(isSeatReserved(screening, row, number));
+            seat.setRow(layout.rowAt(index));
+            seat.setSeat(layout.seatAt(index));
+            seat.setIsReserved(statuses[index] == ScreeningSeatState.RESERVED);
+            seat.setStatus(ScreeningSeatState.statusName(statuses[index]));
             seats.add(seat);
         }
-    }
-    return seats;
-}
-    
-    private boolean isSeatReserved(Screening screening, int row, int number) {
-        return screening.getReservations().stream()
-                .anyMatch(reservation -> reservation.getRow() == row 
-                        && reservation.getSeat() == number);
+        return seats;
     }
     
     @Transactional
@@ -84,22 +154,55 @@ public class ScreeningServiceImpl implements ScreeningService {
         screening.setTicketPrice(request.getTicketPrice());
         
         Screening savedScreening = screeningRepository.save(screening);
+        // Rejects overlaps with the cinema's other screenings, rolling back the insert
+        screeningScheduleService.register(savedScreening);
+        showtimeService.screeningCreated(savedScreening);
         return screeningMapper.toDTO(savedScreening);
     }
     
-    @Transactional
     public void deleteScreening(Long id) {
         if (id == null) {
             throw new RuntimeException("Screening ID cannot be null");
         }
         Screening screening = screeningRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Screening not found"));
-        
-        // Cascade delete will automatically remove reservations
-
-        if (screening == null) {
-            throw new RuntimeException("Screening ID cannot be null");
+        deleteOnWriter(id, screening.getCinema().getId(), screening.getStartDateTime());
+    }
+    
+    public void deleteScreeningsForMovie(Long movieId) {
+        List<Object[]> screenings = screeningRepository.findKeysByMovieId(movieId);
+        for (Object[] screening : screenings) {
+            deleteOnWriter((Long) screening[0], (Long) screening[1], (LocalDateTime) screening[2]);
+        }
+        if (!screenings.isEmpty()) {
+            log.info("Deleted {} screenings of movie {}", screenings.size(), movieId);
         }
-        screeningRepository.delete(screening);
+    }
+    
+    /**
+     * Deletes one screening with its payments, holds and reservations in a transaction on the
+     * screening's writer thread, so no hold or checkout for it can interleave with the delete.
+     */
+    private void deleteOnWriter(Long screeningId, Long cinemaId, LocalDateTime startDateTime) {
+        seatMutationExecutor.execute(screeningId, () -> transactionTemplate.execute(status -> {
+            // Set-based deletes, child-first, instead of loading every reservation through the cascade
+            paymentRepository.deleteAllForScreening(screeningId);
+            seatHoldRepository.deleteAllForScreening(screeningId);
+            reservationRepository.deleteAllForScreening(screeningId);
+            screeningRepository.deleteAllByIdInBatch(List.of(screeningId));
+            
+            holdExpiryService.untrackScreenings(List.of(screeningId));
+            evictScreening(screeningId, cinemaId, startDateTime);
+            return null;
+        }));
+    }
+    
+    private void evictScreening(Long screeningId, Long cinemaId, LocalDateTime startDateTime) {
+        seatInventoryService.evict(screeningId);
+        screeningScheduleService.unregister(cinemaId, screeningId);
+        showtimeService.screeningDeleted(screeningId, startDateTime);
+    }
+    
+    record CursorPosition(LocalDateTime startDateTime, Long id) {
     }
 }
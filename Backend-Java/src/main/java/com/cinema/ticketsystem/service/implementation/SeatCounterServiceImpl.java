@@ -0,0 +1,67 @@
+package com.cinema.ticketsystem.service.implementation;
+
+import com.cinema.ticketsystem.inventory.SeatMutationExecutor;
+import com.cinema.ticketsystem.repository.ScreeningRepository;
+import com.cinema.ticketsystem.service.SeatCounterService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Maintains the reserved and held seat counters on screenings.
+ * Writers adjust them with a single UPDATE in the same transaction as their reservation or
+ * hold rows; a periodic job recounts screenings whose counters drifted from the rows.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SeatCounterServiceImpl implements SeatCounterService {
+    
+    private static final int RECONCILE_WINDOW_DAYS = 1;
+    
+    private final ScreeningRepository screeningRepository;
+    private final SeatMutationExecutor seatMutationExecutor;
+    private final TransactionTemplate transactionTemplate;
+    
+    @Transactional
+    public void adjust(Long screeningId, int reservedDelta, int heldDelta) {
+        if (reservedDelta != 0 || heldDelta != 0) {
+            screeningRepository.adjustSeatCounters(screeningId, reservedDelta, heldDelta);
+        }
+    }
+    
+    /**
+     * Recounts every drifted screening starting at or after the given time. Each recount runs on
+     * the screening's writer thread, so it never interleaves with a seat write for that screening.
+     */
+    public int reconcile(LocalDateTime startingFrom) {
+        List<Long> drifted = screeningRepository.findIdsWithSeatCounterDrift(startingFrom);
+        for (Long screeningId : drifted) {
+            seatMutationExecutor.execute(screeningId, () ->
+                    transactionTemplate.execute(status -> screeningRepository.recountSeatCounters(screeningId)));
+        }
+        if (!drifted.isEmpty()) {
+            log.warn("Repaired seat counters of {} screenings", drifted.size());
+        }
+        return drifted.size();
+    }
+    
+    @Scheduled(fixedDelay = 600000) // Run every 10 minutes
+    public void reconcileRecentScreenings() {
+        reconcile(LocalDateTime.now().minusDays(RECONCILE_WINDOW_DAYS));
+    }
+    
+    // Full pass once at startup, which also fills the counters of rows created before they existed
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconcileAll() {
+        reconcile(LocalDateTime.of(1970, 1, 1, 0, 0));
+    }
+}
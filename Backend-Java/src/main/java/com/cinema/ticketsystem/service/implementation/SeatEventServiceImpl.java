@@ -0,0 +1,362 @@
+package com.cinema.ticketsystem.service.implementation;
+
+import com.cinema.ticketsystem.dto.SeatStatusDeltaDTO;
+import com.cinema.ticketsystem.inventory.SeatStatusChangedEvent;
+import com.cinema.ticketsystem.service.SeatEventService;
+import com.cinema.ticketsystem.service.SeatSelectionService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Streams seat status changes to server-sent event watchers, one channel per screening.
+ * Inventory changes are only buffered on the writer thread; a single dispatcher thread
+ * batches each screening's buffered deltas into one event and hands it to every watcher's
+ * own bounded queue, which a small sender pool drains. The dispatcher never writes to a
+ * socket, so one stalled client cannot hold up the other screenings. A watcher whose queue
+ * overflows is resynchronized with a fresh snapshot. The dispatcher also sweeps for watchers
+ * stuck in one send for too long: they are dropped and a spare sender takes over the blocked
+ * one's share until the servlet write timeout ends that send. Idle watchers hold no thread,
+ * only their async response.
+ */
+@Slf4j
+@Service
+public class SeatEventServiceImpl implements SeatEventService, DisposableBean {
+    
+    private static final long FLUSH_INTERVAL_MILLIS = 200;
+    private static final long KEEPALIVE_INTERVAL_MILLIS = 30000;
+    private static final long SWEEP_INTERVAL_MILLIS = 1000;
+    private static final int MAX_QUEUED_EVENTS = 32;
+    
+    private final SeatSelectionService seatSelectionService;
+    private final int maxWatchers;
+    private final int maxWatchersPerUser;
+    private final int maxPendingDeltas;
+    private final long streamTimeoutMillis;
+    private final long sendTimeoutMillis;
+    private final int senderThreads;
+    private int stalledSenders;
+    
+    private final Map<Long, Channel> channels = new ConcurrentHashMap<>();
+    private final AtomicInteger watcherCount = new AtomicInteger();
+    private final Map<Long, Integer> watchersByUser = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService dispatcher = Executors.newSingleThreadScheduledExecutor(task -> {
+        Thread thread = new Thread(task, "seat-event-dispatcher");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final ThreadPoolExecutor senders;
+    
+    public SeatEventServiceImpl(SeatSelectionService seatSelectionService,
+                                @Value("${app.seats.events.max-watchers:20000}") int maxWatchers,
+                                @Value("${app.seats.events.max-watchers-per-user:5}") int maxWatchersPerUser,
+                                @Value("${app.seats.events.max-pending-deltas:512}") int maxPendingDeltas,
+                                @Value("${app.seats.events.timeout-minutes:30}") long timeoutMinutes,
+                                @Value("${app.seats.events.sender-threads:4}") int senderThreads,
+                                @Value("${app.seats.events.send-timeout-millis:10000}") long sendTimeoutMillis) {
+        this.seatSelectionService = seatSelectionService;
+        AtomicInteger senderIndex = new AtomicInteger();
+        this.senders = new ThreadPoolExecutor(senderThreads, senderThreads, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), task -> {
+            Thread thread = new Thread(task, "seat-event-sender-" + senderIndex.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.senderThreads = senderThreads;
+        this.sendTimeoutMillis = sendTimeoutMillis;
+        this.maxWatchers = maxWatchers;
+        this.maxWatchersPerUser = maxWatchersPerUser;
+        this.maxPendingDeltas = maxPendingDeltas;
+        this.streamTimeoutMillis = TimeUnit.MINUTES.toMillis(timeoutMinutes);
+        dispatcher.scheduleWithFixedDelay(this::flush, FLUSH_INTERVAL_MILLIS, FLUSH_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+        dispatcher.scheduleWithFixedDelay(this::keepAlive, KEEPALIVE_INTERVAL_MILLIS, KEEPALIVE_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+        dispatcher.scheduleWithFixedDelay(this::sweepStalledSends, SWEEP_INTERVAL_MILLIS, SWEEP_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+    
+    public SseEmitter subscribe(Long screeningId, Long userId) {
+        if (screeningId == null) {
+            throw new RuntimeException("Screening ID cannot be null");
+        }
+        if (userId == null) {
+            throw new RuntimeException("User ID cannot be null");
+        }
+        boolean[] admitted = new boolean[1];
+        watchersByUser.compute(userId, (id, count) -> {
+            int current = count != null ? count : 0;
+            admitted[0] = current < maxWatchersPerUser;
+            return admitted[0] ? current + 1 : count;
+        });
+        if (!admitted[0]) {
+            throw new RuntimeException("Too many open seat map streams. Please close one before opening another.");
+        }
+        if (watcherCount.incrementAndGet() > maxWatchers) {
+            watcherCount.decrementAndGet();
+            releaseUserSlot(userId);
+            throw new RuntimeException("Too many seat map watchers. Please poll the seat map instead.");
+        }
+        
+        SseEmitter emitter = newEmitter(streamTimeoutMillis);
+        Watcher watcher = new Watcher(screeningId, userId, emitter);
+        emitter.onCompletion(() -> remove(watcher));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(e -> remove(watcher));
+        
+        // Register before the snapshot is taken so no delta committed in between is missed;
+        // clients ignore deltas whose version is not newer than the snapshot's
+        channels.compute(screeningId, (id, channel) -> {
+            Channel target = channel != null ? channel : new Channel();
+            target.watchers.add(watcher);
+            return target;
+        });
+        // The first send is the snapshot, from the sender pool like every other event
+        enqueue(watcher, null);
+        return emitter;
+    }
+    
+    public int getWatcherCount() {
+        return watcherCount.get();
+    }
+    
+    SseEmitter newEmitter(long timeoutMillis) {
+        return new SseEmitter(timeoutMillis);
+    }
+    
+    @EventListener
+    public void onSeatStatusChanged(SeatStatusChangedEvent event) {
+        Channel channel = channels.get(event.getScreeningId());
+        if (channel == null || channel.watchers.isEmpty()) {
+            return;
+        }
+        synchronized (channel) {
+            if (channel.resync) {
+                return;
+            }
+            if (channel.pending.size() + event.getDeltas().size() > maxPendingDeltas) {
+                // Slow dispatch: drop the backlog and send a fresh snapshot on the next flush
+                channel.pending.clear();
+                channel.resync = true;
+            } else {
+                channel.pending.addAll(event.getDeltas());
+            }
+        }
+    }
+    
+    @Override
+    public void destroy() {
+        dispatcher.shutdownNow();
+        senders.shutdownNow();
+        channels.values().forEach(channel -> channel.watchers.forEach(watcher -> watcher.emitter.complete()));
+    }
+    
+    private void flush() {
+        channels.forEach((screeningId, channel) -> {
+            List<SeatStatusDeltaDTO> deltas;
+            boolean resync;
+            synchronized (channel) {
+                if (channel.pending.isEmpty() && !channel.resync) {
+                    return;
+                }
+                deltas = channel.pending;
+                resync = channel.resync;
+                channel.pending = new ArrayList<>();
+                channel.resync = false;
+            }
+            
+            if (resync) {
+                // Each watcher takes its own snapshot when its sender gets to it
+                channel.watchers.forEach(watcher -> enqueue(watcher, null));
+            } else {
+                Map<String, Object> payload = new HashMap<>();
+                payload.put("screeningId", screeningId);
+                payload.put("version", deltas.get(deltas.size() - 1).getVersion());
+                payload.put("deltas", deltas);
+                broadcast(channel, () -> SseEmitter.event().name("delta").data(payload));
+            }
+        });
+    }
+    
+    private void keepAlive() {
+        channels.values().forEach(channel -> broadcast(channel, () -> SseEmitter.event().comment("keepalive")));
+    }
+    
+    /**
+     * Drops watchers stuck in one send past the send timeout. Completing the emitter here would
+     * wait on the blocked send, so that is left to the sender once the write timeout ends it;
+     * meanwhile the pool gets a spare thread so the other watchers keep their share.
+     */
+    private void sweepStalledSends() {
+        long now = System.currentTimeMillis();
+        channels.values().forEach(channel -> channel.watchers.forEach(watcher -> {
+            boolean stalled;
+            synchronized (watcher) {
+                stalled = watcher.sending && !watcher.stalled && now - watcher.sendStartedAt > sendTimeoutMillis;
+                watcher.stalled |= stalled;
+            }
+            if (stalled) {
+                log.debug("Seat event send for screening {} timed out, dropping the watcher", watcher.screeningId);
+                remove(watcher);
+                resizeSenders(1);
+            }
+        }));
+    }
+    
+    private synchronized void resizeSenders(int delta) {
+        stalledSenders += delta;
+        int size = senderThreads + stalledSenders;
+        if (delta > 0) {
+            senders.setMaximumPoolSize(size);
+            senders.setCorePoolSize(size);
+        } else {
+            senders.setCorePoolSize(size);
+            senders.setMaximumPoolSize(size);
+        }
+    }
+    
+    private void broadcast(Channel channel, Supplier<SseEmitter.SseEventBuilder> event) {
+        // A builder can only be sent once, so each watcher gets its own; the payload is shared
+        channel.watchers.forEach(watcher -> enqueue(watcher, event));
+    }
+    
+    /**
+     * Queues an event for one watcher, or a snapshot when the event is null, and starts a
+     * sender for it if none is running. Never blocks on the client.
+     */
+    private void enqueue(Watcher watcher, Supplier<SseEmitter.SseEventBuilder> event) {
+        boolean start;
+        synchronized (watcher) {
+            if (watcher.stalled) {
+                return;
+            }
+            if (event == null || watcher.queue.size() >= MAX_QUEUED_EVENTS) {
+                // Too far behind: drop its backlog, a fresh snapshot replaces it
+                watcher.queue.clear();
+                watcher.resync = true;
+            } else if (!watcher.resync) {
+                watcher.queue.add(event);
+            }
+            start = !watcher.draining;
+            watcher.draining = true;
+        }
+        if (start) {
+            try {
+                senders.execute(() -> drain(watcher));
+            } catch (RejectedExecutionException e) {
+                drop(watcher, e);
+            }
+        }
+    }
+    
+    private void drain(Watcher watcher) {
+        while (true) {
+            Supplier<SseEmitter.SseEventBuilder> event;
+            synchronized (watcher) {
+                boolean snapshot = watcher.resync;
+                watcher.resync = false;
+                event = snapshot ? null : watcher.queue.poll();
+                if (!snapshot && event == null) {
+                    watcher.draining = false;
+                    return;
+                }
+                watcher.sending = true;
+                watcher.sendStartedAt = System.currentTimeMillis();
+            }
+            Exception failure = null;
+            try {
+                watcher.emitter.send(event != null ? event.get()
+                        : SseEmitter.event().name("snapshot").data(seatSelectionService.getPackedSeatMap(watcher.screeningId)));
+            } catch (IOException | RuntimeException e) {
+                failure = e;
+            }
+            boolean stalled;
+            synchronized (watcher) {
+                watcher.sending = false;
+                stalled = watcher.stalled;
+                if (stalled || failure != null) {
+                    watcher.queue.clear();
+                    watcher.draining = false;
+                }
+            }
+            if (stalled) {
+                // The sweep already dropped it and lent the pool a spare thread for this one
+                resizeSenders(-1);
+                drop(watcher, failure != null ? failure : new IOException("Seat event send timed out"));
+                return;
+            }
+            if (failure != null) {
+                // Client went away or the snapshot failed; drop it instead of retrying
+                drop(watcher, failure);
+                return;
+            }
+        }
+    }
+    
+    private void drop(Watcher watcher, Exception cause) {
+        remove(watcher);
+        try {
+            watcher.emitter.completeWithError(cause);
+        } catch (RuntimeException e) {
+            log.debug("Seat event watcher for screening {} already completed", watcher.screeningId);
+        }
+    }
+    
+    private void remove(Watcher watcher) {
+        boolean[] removed = new boolean[1];
+        channels.computeIfPresent(watcher.screeningId, (id, channel) -> {
+            removed[0] = channel.watchers.remove(watcher);
+            return channel.watchers.isEmpty() ? null : channel;
+        });
+        if (removed[0]) {
+            watcherCount.decrementAndGet();
+            releaseUserSlot(watcher.userId);
+        }
+    }
+    
+    private void releaseUserSlot(Long userId) {
+        watchersByUser.computeIfPresent(userId, (id, count) -> count > 1 ? count - 1 : null);
+    }
+    
+    private static class Channel {
+        private final Set<Watcher> watchers = ConcurrentHashMap.newKeySet();
+        private List<SeatStatusDeltaDTO> pending = new ArrayList<>();
+        private boolean resync;
+    }
+    
+    private static class Watcher {
+        private final Long screeningId;
+        private final Long userId;
+        private final SseEmitter emitter;
+        private final Deque<Supplier<SseEmitter.SseEventBuilder>> queue = new ArrayDeque<>();
+        private boolean resync;
+        private boolean draining;
+        private boolean sending;
+        private boolean stalled;
+        private long sendStartedAt;
+        
+        private Watcher(Long screeningId, Long userId, SseEmitter emitter) {
+            this.screeningId = screeningId;
+            this.userId = userId;
+            this.emitter = emitter;
+        }
+    }
+}
@@ -0,0 +1,248 @@
+package com.cinema.ticketsystem.service.implementation;
+
+import com.cinema.ticketsystem.dto.SeatPosition;
+import com.cinema.ticketsystem.dto.SeatStatusDeltaDTO;
+import com.cinema.ticketsystem.inventory.AfterCommit;
+import com.cinema.ticketsystem.inventory.AuditoriumLayoutRegistry;
+import com.cinema.ticketsystem.inventory.ScreeningSeatState;
+import com.cinema.ticketsystem.inventory.SeatStatusChangedEvent;
+import com.cinema.ticketsystem.model.Cinema;
+import com.cinema.ticketsystem.model.Screening;
+import com.cinema.ticketsystem.repository.ReservationRepository;
+import com.cinema.ticketsystem.repository.ScreeningRepository;
+import com.cinema.ticketsystem.repository.SeatHoldRepository;
+import com.cinema.ticketsystem.service.SeatInventoryService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+
+/**
+ * Keeps one {@link ScreeningSeatState} per screening in memory.
+ * States are loaded lazily on first access and updated by the hold, reserve and
+ * release paths once their transaction has committed. A load runs outside the map's locks;
+ * concurrent readers of a screening that is still loading wait for that single load, and
+ * changes committed meanwhile are applied in order once it completes.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SeatInventoryServiceImpl implements SeatInventoryService {
+    
+    private static final int EVICT_AFTER_START_HOURS = 6;
+    
+    private final ScreeningRepository screeningRepository;
+    private final ReservationRepository reservationRepository;
+    private final SeatHoldRepository seatHoldRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final AuditoriumLayoutRegistry auditoriumLayoutRegistry;
+    
+    private final Map<Long, CompletableFuture<ScreeningSeatState>> states = new ConcurrentHashMap<>();
+    // Changes committed while a screening loads; only touched inside states.compute for that screening
+    private final Map<Long, List<PendingChange>> pendingChanges = new ConcurrentHashMap<>();
+    
+    public ScreeningSeatState getState(Long screeningId) {
+        if (screeningId == null) {
+            throw new RuntimeException("Screening ID cannot be null");
+        }
+        CompletableFuture<ScreeningSeatState> state = states.get(screeningId);
+        if (state == null) {
+            CompletableFuture<ScreeningSeatState> loading = new CompletableFuture<>();
+            state = states.putIfAbsent(screeningId, loading);
+            if (state == null) {
+                state = loading;
+                completeLoad(screeningId, loading);
+            }
+        }
+        try {
+            return state.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw e;
+        }
+    }
+    
+    public void markHeld(Long screeningId, Collection<SeatPosition> seats) {
+        afterCommit(screeningId, seats, (state, seat) -> state.markHeld(seat.getRow(), seat.getSeat()));
+    }
+    
+    public void releaseHeld(Long screeningId, Collection<SeatPosition> seats) {
+        afterCommit(screeningId, seats, (state, seat) -> state.clearHeld(seat.getRow(), seat.getSeat()));
+    }
+    
+    public void markReserved(Long screeningId, Collection<SeatPosition> seats) {
+        afterCommit(screeningId, seats, (state, seat) -> state.markReserved(seat.getRow(), seat.getSeat()));
+    }
+    
+    public void releaseReserved(Long screeningId, Collection<SeatPosition> seats) {
+        afterCommit(screeningId, seats, (state, seat) -> state.clearReserved(seat.getRow(), seat.getSeat()));
+    }
+    
+    // After commit, so a state reloaded while the delete is still running is dropped as well
+    public void evict(Long screeningId) {
+        if (screeningId != null) {
+            AfterCommit.run(() -> discard(screeningId));
+        }
+    }
+    
+    // Reloaded after any movie edit, so version tags used as screening ETags change too
+    public void evictMovie(Long movieId) {
+        if (movieId != null) {
+            // Loads still running may have read the movie before the edit, so they go too
+            AfterCommit.run(() -> states.forEach((screeningId, future) -> {
+                ScreeningSeatState state = loaded(future);
+                if (!future.isDone() || state != null && movieId.equals(state.getMovieId())) {
+                    discard(screeningId);
+                }
+            }));
+        }
+    }
+    
+    @Scheduled(fixedRate = 600000) // Run every 10 minutes
+    public void evictPastScreenings() {
+        LocalDateTime cutoff = LocalDateTime.now().minusHours(EVICT_AFTER_START_HOURS);
+        states.forEach((screeningId, future) -> {
+            ScreeningSeatState state = loaded(future);
+            if (state != null && state.getStartDateTime().isBefore(cutoff)) {
+                discard(screeningId);
+            }
+        });
+    }
+    
+    private void discard(Long screeningId) {
+        states.computeIfPresent(screeningId, (id, future) -> {
+            pendingChanges.remove(id);
+            return null;
+        });
+    }
+    
+    /**
+     * Loads the state outside the map's locks, then applies the changes that committed during the
+     * load and completes it in one step, so no later change can slip in between.
+     */
+    private void completeLoad(Long screeningId, CompletableFuture<ScreeningSeatState> loading) {
+        ScreeningSeatState state;
+        try {
+            state = load(screeningId);
+        } catch (RuntimeException e) {
+            states.computeIfPresent(screeningId, (id, current) -> {
+                if (current != loading) {
+                    return current;
+                }
+                pendingChanges.remove(id);
+                return null;
+            });
+            loading.completeExceptionally(e);
+            return;
+        }
+        List<SeatStatusDeltaDTO> deltas = new ArrayList<>();
+        states.computeIfPresent(screeningId, (id, current) -> {
+            if (current == loading) {
+                List<PendingChange> changes = pendingChanges.remove(id);
+                if (changes != null) {
+                    changes.forEach(pending -> deltas.addAll(apply(state, pending.seats(), pending.change())));
+                }
+                loading.complete(state);
+            }
+            return current;
+        });
+        // Evicted while loading: the caller still gets the state, the next one loads afresh
+        loading.complete(state);
+        publish(screeningId, deltas);
+    }
+    
+    private ScreeningSeatState load(Long screeningId) {
+        Screening screening = screeningRepository.findWithCinemaAndMovieById(screeningId)
+                .orElseThrow(() -> new RuntimeException("Screening not found"));
+        Cinema cinema = screening.getCinema();
+        
+        ScreeningSeatState state = new ScreeningSeatState(
+                screening.getId(),
+                cinema.getId(),
+                cinema.getName(),
+                screening.getMovie().getId(),
+                screening.getMovie().getTitle(),
+                screening.getStartDateTime(),
+                auditoriumLayoutRegistry.get(cinema.getRows(), cinema.getSeatsPerRow()));
+        
+        for (Object[] seat : reservationRepository.findSeatPositionsByScreeningId(screeningId)) {
+            state.markReserved((Integer) seat[0], (Integer) seat[1]);
+        }
+        for (Object[] seat : seatHoldRepository.findActiveSeatPositionsByScreeningId(screeningId, LocalDateTime.now())) {
+            state.markHeld((Integer) seat[0], (Integer) seat[1]);
+        }
+        
+        log.debug("Loaded seat inventory for screening {}: {} reserved, {} held",
+                screeningId, state.getReservedCount(), state.getHeldCount());
+        return state;
+    }
+    
+    /**
+     * Applies a change to a loaded state once the surrounding transaction commits, bumps its
+     * version and publishes the resulting seat statuses. States that are not loaded at all are
+     * left alone; they read the committed rows when loaded. A state still loading may have read
+     * the rows before this commit, so the change is queued for the loader; seat changes are
+     * idempotent, so applying one the load already saw is harmless.
+     */
+    private void afterCommit(Long screeningId, Collection<SeatPosition> seats,
+                             BiConsumer<ScreeningSeatState, SeatPosition> change) {
+        if (screeningId == null || seats.isEmpty()) {
+            return;
+        }
+        List<SeatPosition> changed = List.copyOf(seats);
+        AfterCommit.run(() -> {
+            List<SeatStatusDeltaDTO> deltas = new ArrayList<>(changed.size());
+            states.computeIfPresent(screeningId, (id, future) -> {
+                ScreeningSeatState state = loaded(future);
+                if (state != null) {
+                    deltas.addAll(apply(state, changed, change));
+                } else if (!future.isDone()) {
+                    pendingChanges.computeIfAbsent(id, key -> new ArrayList<>()).add(new PendingChange(changed, change));
+                }
+                return future;
+            });
+            publish(screeningId, deltas);
+        });
+    }
+    
+    private static List<SeatStatusDeltaDTO> apply(ScreeningSeatState state, List<SeatPosition> changed,
+                                                  BiConsumer<ScreeningSeatState, SeatPosition> change) {
+        List<SeatStatusDeltaDTO> deltas = new ArrayList<>(changed.size());
+        synchronized (state) {
+            changed.forEach(seat -> change.accept(state, seat));
+            long version = state.incrementVersion();
+            for (SeatPosition seat : changed) {
+                String status = ScreeningSeatState.statusName(state.getStatus(seat.getRow(), seat.getSeat()));
+                deltas.add(new SeatStatusDeltaDTO(seat.getRow(), seat.getSeat(), status, version));
+            }
+        }
+        return deltas;
+    }
+    
+    private void publish(Long screeningId, List<SeatStatusDeltaDTO> deltas) {
+        if (!deltas.isEmpty()) {
+            eventPublisher.publishEvent(new SeatStatusChangedEvent(screeningId, deltas));
+        }
+    }
+    
+    // The state if its load has completed successfully, otherwise null
+    private static ScreeningSeatState loaded(CompletableFuture<ScreeningSeatState> future) {
+        return future.isDone() && !future.isCompletedExceptionally() ? future.join() : null;
+    }
+    
+    private record PendingChange(List<SeatPosition> seats, BiConsumer<ScreeningSeatState, SeatPosition> change) {
+    }
+}
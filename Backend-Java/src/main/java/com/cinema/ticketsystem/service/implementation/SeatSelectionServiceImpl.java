@@ -1,12 +1,26 @@
 package com.cinema.ticketsystem.service.implementation;
 
+import com.cinema.ticketsystem.dto.BestAvailableRequest;
+import com.cinema.ticketsystem.dto.SeatConflictDTO;
+import com.cinema.ticketsystem.dto.SeatPosition;
+import com.cinema.ticketsystem.exception.SeatConflictException;
+import com.cinema.ticketsystem.inventory.AuditoriumLayout;
+import com.cinema.ticketsystem.inventory.BestSeatFinder;
+import com.cinema.ticketsystem.inventory.ScreeningSeatState;
+import com.cinema.ticketsystem.inventory.SeatMutationExecutor;
 import com.cinema.ticketsystem.model.*;
 import com.cinema.ticketsystem.repository.*;
+import com.cinema.ticketsystem.service.HoldExpiryService;
+import com.cinema.ticketsystem.service.HoldQuotaService;
+import com.cinema.ticketsystem.service.SeatCounterService;
+import com.cinema.ticketsystem.service.SeatInventoryService;
 import com.cinema.ticketsystem.service.SeatSelectionService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
 import java.util.*;
@@ -17,74 +31,95 @@ import java.util.stream.Collectors;
 public class SeatSelectionServiceImpl implements SeatSelectionService {
     
     private final SeatHoldRepository seatHoldRepository;
-    private final ReservationRepository reservationRepository;
     private final ScreeningRepository screeningRepository;
     private final UserRepository userRepository;
+    private final SeatInventoryService seatInventoryService;
+    private final HoldExpiryService holdExpiryService;
+    private final HoldQuotaService holdQuotaService;
+    private final SeatCounterService seatCounterService;
+    private final SeatMutationExecutor seatMutationExecutor;
+    private final TransactionTemplate transactionTemplate;
     
-    private static final int HOLD_DURATION_MINUTES = 15;
+    // Holds start short and are kept alive by heartbeats, up to a hard cap counted from when they were taken
+    @Value("${app.seats.hold.ttl-seconds:60}")
+    private long holdTtlSeconds;
+    
+    @Value("${app.seats.hold.max-minutes:15}")
+    private long holdMaxMinutes;
+    
+    private static final List<String> PACKED_STATUS_CODES = List.of("AVAILABLE", "HELD", "RESERVED");
     
-    @Transactional(readOnly = true)
     public Map<String, Object> getAvailableSeats(Long screeningId) {
         if (screeningId == null) {
             throw new RuntimeException("Screening ID cannot be null");
         }
-        Screening screening = screeningRepository.findById(screeningId)
-                .orElseThrow(() -> new RuntimeException("Screening not found"));
+        // Served from the in-memory inventory; the database is only read on first access
+        ScreeningSeatState state = seatInventoryService.getState(screeningId);
+        AuditoriumLayout layout = state.getLayout();
+        int rows = layout.getRows();
+        int seatsPerRow = layout.getSeatsPerRow();
+        byte[] statuses = state.getStatuses();
         
-        Cinema cinema = screening.getCinema();
-        int rows = cinema.getRows();
-        int seatsPerRow = cinema.getSeatsPerRow();
-        
-        // Get all reservations for this screening
-        List<Reservation> reservations = reservationRepository.findByScreeningId(screeningId);
-        Set<String> reservedSeats = reservations.stream()
-                .map(r -> r.getRow() + "-" + r.getSeat())
-                .collect(Collectors.toSet());
-        
-        // Get all active seat holds
-        List<SeatHold> activeHolds = seatHoldRepository.findByScreeningIdAndIsActiveTrue(screeningId);
-        Set<String> heldSeats = activeHolds.stream()
-                .filter(h -> h.getExpiresAt().isAfter(LocalDateTime.now()))
-                .map(h -> h.getRow() + "-" + h.getSeat())
-                .collect(Collectors.toSet());
-        
-        // Build seat map
-        List<Map<String, Object>> seatMap = new ArrayList<>();
-        for (int row = 1; row <= rows; row++) {
-            for (int seat = 1; seat <= seatsPerRow; seat++) {
-                String seatKey = row + "-" + seat;
-                Map<String, Object> seatInfo = new HashMap<>();
-                seatInfo.put("row", row);
-                seatInfo.put("seat", seat);
-                seatInfo.put("seatNumber", String.format("%c%d", (char)('A' + row - 1), seat));
-                
-                if (reservedSeats.contains(seatKey)) {
-                    seatInfo.put("status", "RESERVED");
-                } else if (heldSeats.contains(seatKey)) {
-                    seatInfo.put("status", "HELD");
-                } else {
-                    seatInfo.put("status", "AVAILABLE");
-                }
-                
-                seatMap.add(seatInfo);
+        // Build seat map from the cached layout and the current status of each seat
+        List<Map<String, Object>> seatMap = new ArrayList<>(statuses.length);
+        long availableSeats = 0;
+        for (int index = 0; index < statuses.length; index++) {
+            byte status = statuses[index];
+            if (status == ScreeningSeatState.AVAILABLE) {
+                availableSeats++;
             }
+            Map<String, Object> seatInfo = new HashMap<>(8);
+            seatInfo.put("row", layout.rowAt(index));
+            seatInfo.put("seat", layout.seatAt(index));
+            seatInfo.put("seatNumber", layout.labelAt(index));
+            seatInfo.put("status", ScreeningSeatState.statusName(status));
+            seatMap.add(seatInfo);
         }
         
         Map<String, Object> result = new HashMap<>();
         result.put("screeningId", screeningId);
-        result.put("movieTitle", screening.getMovie().getTitle());
-        result.put("startDateTime", screening.getStartDateTime());
-        result.put("cinemaName", cinema.getName());
+        result.put("movieTitle", state.getMovieTitle());
+        result.put("startDateTime", state.getStartDateTime());
+        result.put("cinemaName", state.getCinemaName());
         result.put("totalRows", rows);
         result.put("seatsPerRow", seatsPerRow);
         result.put("totalSeats", rows * seatsPerRow);
-        result.put("availableSeats", seatMap.stream().filter(s -> "AVAILABLE".equals(s.get("status"))).count());
+        result.put("availableSeats", availableSeats);
         result.put("seats", seatMap);
         
         return result;
     }
     
-    @Transactional
+    public Map<String, Object> getPackedSeatMap(Long screeningId) {
+        if (screeningId == null) {
+            throw new RuntimeException("Screening ID cannot be null");
+        }
+        ScreeningSeatState state = seatInventoryService.getState(screeningId);
+        
+        // 2 bits per seat, row-major, 4 seats per byte starting at the lowest bits
+        Map<String, Object> result = new HashMap<>();
+        result.put("screeningId", screeningId);
+        result.put("movieTitle", state.getMovieTitle());
+        result.put("startDateTime", state.getStartDateTime());
+        result.put("cinemaName", state.getCinemaName());
+        result.put("totalRows", state.getRows());
+        result.put("seatsPerRow", state.getSeatsPerRow());
+        result.put("totalSeats", state.getTotalSeats());
+        result.put("availableSeats", state.getAvailableCount());
+        result.put("version", state.getVersion());
+        result.put("encoding", "2bit-base64");
+        result.put("statusCodes", PACKED_STATUS_CODES);
+        result.put("seats", Base64.getEncoder().encodeToString(state.getPackedStatuses()));
+        return result;
+    }
+    
+    public String getSeatMapVersionTag(Long screeningId) {
+        if (screeningId == null) {
+            throw new RuntimeException("Screening ID cannot be null");
+        }
+        return seatInventoryService.getState(screeningId).getVersionTag();
+    }
+    
     public Map<String, Object> holdSeats(Long userId, Long screeningId, List<Map<String, Integer>> seats) {
         if (userId == null) {
             throw new RuntimeException("User ID cannot be null");
@@ -93,82 +128,190 @@ public class SeatSelectionServiceImpl implements SeatSelectionService {
             throw new RuntimeException("Screening ID cannot be null");
         }
         
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-        
-        Screening screening = screeningRepository.findById(screeningId)
-                .orElseThrow(() -> new RuntimeException("Screening not found"));
+        if (seats == null || seats.isEmpty()) {
+            throw new RuntimeException("At least one seat must be selected");
+        }
         
-        // Release any expired holds first
-        cleanupExpiredHolds();
+        // Quotas are taken up front and given back if the hold does not go through
+        holdQuotaService.acquire(userId, screeningId, seats.size());
+        try {
+            // All seat writes for a screening run on its single writer thread, so the
+            // in-memory check below cannot race another hold or reservation
+            return seatMutationExecutor.execute(screeningId, () -> {
+                ScreeningSeatState state = seatInventoryService.getState(screeningId);
+                Set<SeatPosition> requested = validateSeats(state, seats);
+                
+                // Conflicts are detected before any SQL is issued
+                List<SeatConflictDTO> conflicts = findConflicts(state, requested);
+                if (!conflicts.isEmpty()) {
+                    throw new SeatConflictException(conflicts);
+                }
+                
+                return transactionTemplate.execute(status -> insertHolds(userId, screeningId, requested, seats));
+            });
+        } catch (RuntimeException e) {
+            holdQuotaService.release(userId, screeningId, seats.size());
+            throw e;
+        }
+    }
+    
+    public Map<String, Object> holdBestAvailable(Long userId, BestAvailableRequest request) {
+        if (userId == null) {
+            throw new RuntimeException("User ID cannot be null");
+        }
+        Long screeningId = request.getScreeningId();
+        int partySize = request.getPartySize();
         
-        List<SeatHold> createdHolds = new ArrayList<>();
-        LocalDateTime expiresAt = LocalDateTime.now().plusMinutes(HOLD_DURATION_MINUTES);
+        holdQuotaService.acquire(userId, screeningId, partySize);
+        try {
+            return findAndHold(userId, request);
+        } catch (RuntimeException e) {
+            holdQuotaService.release(userId, screeningId, partySize);
+            throw e;
+        }
+    }
+    
+    private Map<String, Object> findAndHold(Long userId, BestAvailableRequest request) {
+        Long screeningId = request.getScreeningId();
+        int partySize = request.getPartySize();
         
-        for (Map<String, Integer> seat : seats) {
-            Integer row = seat.get("row");
-            Integer seatNumber = seat.get("seat");
-            
-            // Validate seat exists
-            if (row < 1 || row > screening.getCinema().getRows() ||
-                seatNumber < 1 || seatNumber > screening.getCinema().getSeatsPerRow()) {
-                throw new RuntimeException("Invalid seat: Row " + row + ", Seat " + seatNumber);
+        // Search and hold happen in one step on the writer thread, so the chosen seats cannot be taken in between
+        return seatMutationExecutor.execute(screeningId, () -> {
+            ScreeningSeatState state = seatInventoryService.getState(screeningId);
+            if (state.getAvailableCount() < partySize) {
+                throw new RuntimeException("Not enough seats available for a party of " + partySize);
             }
             
-            // Check if seat is already reserved
-            if (reservationRepository.existsByScreeningIdAndRowAndSeat(screeningId, row, seatNumber)) {
-                throw new RuntimeException("Seat already reserved: Row " + row + ", Seat " + seatNumber);
+            long[] occupied = state.getOccupiedWords();
+            BestSeatFinder finder = request.getPreferredRowFrom() != null || request.getPreferredRowTo() != null
+                    ? new BestSeatFinder(occupied, state.getRows(), state.getSeatsPerRow(),
+                            Optional.ofNullable(request.getPreferredRowFrom()).orElse(1),
+                            Optional.ofNullable(request.getPreferredRowTo()).orElse(state.getRows()))
+                    : BestSeatFinder.withDefaultBand(occupied, state.getRows(), state.getSeatsPerRow());
+            BestSeatFinder.Result best = finder.find(partySize);
+            if (best.getSeats().isEmpty()) {
+                throw new RuntimeException("Not enough seats available for a party of " + partySize);
             }
             
-            // Check if seat is already held
-            if (seatHoldRepository.existsByScreeningIdAndRowAndSeatAndIsActiveTrue(screeningId, row, seatNumber)) {
-                throw new RuntimeException("Seat already held: Row " + row + ", Seat " + seatNumber);
-            }
+            Set<SeatPosition> requested = new LinkedHashSet<>(best.getSeats());
+            List<Map<String, Integer>> seats = requested.stream()
+                    .map(p -> Map.of("row", p.getRow(), "seat", p.getSeat()))
+                    .collect(Collectors.toList());
             
-            // Create hold
+            Map<String, Object> result = transactionTemplate.execute(status -> insertHolds(userId, screeningId, requested, seats));
+            result.put("contiguous", best.isContiguous());
+            return result;
+        });
+    }
+    
+    private Map<String, Object> insertHolds(Long userId, Long screeningId, Set<SeatPosition> requested,
+                                            List<Map<String, Integer>> seats) {
+        User user = userRepository.getReferenceById(userId);
+        Screening screening = screeningRepository.getReferenceById(screeningId);
+        
+        LocalDateTime expiresAt = LocalDateTime.now().plusSeconds(holdTtlSeconds);
+        List<SeatHold> newHolds = new ArrayList<>(requested.size());
+        for (SeatPosition position : requested) {
             SeatHold hold = new SeatHold();
             hold.setUser(user);
             hold.setScreening(screening);
-            hold.setRow(row);
-            hold.setSeat(seatNumber);
+            hold.setRow(position.getRow());
+            hold.setSeat(position.getSeat());
             hold.setExpiresAt(expiresAt);
             hold.setIsActive(true);
-            
-            createdHolds.add(seatHoldRepository.save(hold));
+            newHolds.add(hold);
         }
         
+        List<SeatHold> createdHolds = seatHoldRepository.saveAll(newHolds);
+        seatCounterService.adjust(screeningId, 0, createdHolds.size());
+        seatInventoryService.markHeld(screeningId, requested);
+        holdExpiryService.track(createdHolds);
+        
         Map<String, Object> result = new HashMap<>();
         result.put("holdIds", createdHolds.stream().map(SeatHold::getId).collect(Collectors.toList()));
         result.put("expiresAt", expiresAt);
-        result.put("expiresInMinutes", HOLD_DURATION_MINUTES);
+        result.put("expiresInSeconds", holdTtlSeconds);
         result.put("seats", seats);
         
         return result;
     }
     
-    @Transactional
     public void releaseHolds(Long userId, List<Long> holdIds) {
-        for (Long holdId : holdIds) {
-            if (holdId == null) {
-                throw new RuntimeException("Hold ID cannot be null");
-            }
-            SeatHold hold = seatHoldRepository.findById(holdId)
-                    .orElseThrow(() -> new RuntimeException("Hold not found"));
-            
+        if (holdIds.stream().anyMatch(Objects::isNull)) {
+            throw new RuntimeException("Hold ID cannot be null");
+        }
+        List<SeatHold> holds = seatHoldRepository.findAllById(holdIds);
+        if (holds.size() != new HashSet<>(holdIds).size()) {
+            throw new RuntimeException("Hold not found");
+        }
+        for (SeatHold hold : holds) {
             if (!hold.getUser().getId().equals(userId)) {
                 throw new RuntimeException("You can only release your own holds");
             }
-            
-            hold.setIsActive(false);
-            seatHoldRepository.save(hold);
         }
+        releaseActiveHolds(holds);
+    }
+    
+    public Map<String, Object> extendHolds(Long userId, List<Long> holdIds) {
+        if (userId == null) {
+            throw new RuntimeException("User ID cannot be null");
+        }
+        List<SeatHold> holds;
+        if (holdIds == null || holdIds.isEmpty()) {
+            holds = seatHoldRepository.findByUserIdAndIsActiveTrue(userId);
+        } else {
+            holds = seatHoldRepository.findAllById(holdIds);
+            for (SeatHold hold : holds) {
+                if (!hold.getUser().getId().equals(userId)) {
+                    throw new RuntimeException("You can only extend your own holds");
+                }
+            }
+        }
+        
+        List<Map<String, Object>> extended = new ArrayList<>();
+        holds.stream()
+                .collect(Collectors.groupingBy(h -> h.getScreening().getId(),
+                        Collectors.mapping(SeatHold::getId, Collectors.toList())))
+                .forEach((screeningId, ids) -> extended.addAll(seatMutationExecutor.execute(screeningId, () ->
+                        transactionTemplate.execute(status -> extendOnWriter(ids)))));
+        
+        Map<String, Object> result = new HashMap<>();
+        result.put("holds", extended);
+        result.put("extendedCount", extended.size());
+        result.put("expiresInSeconds", holdTtlSeconds);
+        return result;
+    }
+    
+    private List<Map<String, Object>> extendOnWriter(List<Long> holdIds) {
+        // Holds about to fire are left alone; the expiry tick may already have claimed them
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime extendable = now.plusSeconds(2);
+        List<SeatHold> holds = seatHoldRepository.findAllById(holdIds).stream()
+                .filter(h -> Boolean.TRUE.equals(h.getIsActive()) && h.getExpiresAt().isAfter(extendable))
+                .collect(Collectors.toList());
+        
+        List<Map<String, Object>> extended = new ArrayList<>(holds.size());
+        for (SeatHold hold : holds) {
+            LocalDateTime cap = hold.getHeldAt().plusMinutes(holdMaxMinutes);
+            LocalDateTime expiresAt = now.plusSeconds(holdTtlSeconds);
+            if (expiresAt.isAfter(cap)) {
+                expiresAt = cap;
+            }
+            if (expiresAt.isAfter(hold.getExpiresAt())) {
+                hold.setExpiresAt(expiresAt);
+            }
+            Map<String, Object> holdInfo = new HashMap<>();
+            holdInfo.put("holdId", hold.getId());
+            holdInfo.put("expiresAt", hold.getExpiresAt());
+            holdInfo.put("maxExpiresAt", cap);
+            extended.add(holdInfo);
+        }
+        holdExpiryService.reschedule(holds);
+        return extended;
     }
     
-    @Transactional
     public void releaseAllUserHolds(Long userId) {
-        List<SeatHold> userHolds = seatHoldRepository.findByUserIdAndIsActiveTrue(userId);
-        userHolds.forEach(hold -> hold.setIsActive(false));
-        seatHoldRepository.saveAll(userHolds);
+        releaseActiveHolds(seatHoldRepository.findByUserIdAndIsActiveTrue(userId));
     }
     
     @Transactional(readOnly = true)
@@ -178,13 +321,14 @@ public class SeatSelectionServiceImpl implements SeatSelectionService {
         return holds.stream()
                 .filter(h -> h.getExpiresAt().isAfter(LocalDateTime.now()))
                 .map(h -> {
+                    AuditoriumLayout layout = seatInventoryService.getState(h.getScreening().getId()).getLayout();
                     Map<String, Object> holdInfo = new HashMap<>();
                     holdInfo.put("holdId", h.getId());
                     holdInfo.put("screeningId", h.getScreening().getId());
                     holdInfo.put("movieTitle", h.getScreening().getMovie().getTitle());
                     holdInfo.put("row", h.getRow());
                     holdInfo.put("seat", h.getSeat());
-                    holdInfo.put("seatNumber", String.format("%c%d", (char)('A' + h.getRow() - 1), h.getSeat()));
+                    holdInfo.put("seatNumber", layout.label(h.getRow(), h.getSeat()));
                     holdInfo.put("heldAt", h.getHeldAt());
                     holdInfo.put("expiresAt", h.getExpiresAt());
                     return holdInfo;
@@ -192,12 +336,75 @@ public class SeatSelectionServiceImpl implements SeatSelectionService {
                 .collect(Collectors.toList());
     }
     
-    @Transactional
-    @Scheduled(fixedRate = 60000) // Run every minute
+    @Scheduled(fixedRate = 600000) // Safety net only; HoldExpiryService expires holds within a second
     public void cleanupExpiredHolds() {
-        int deactivated = seatHoldRepository.deactivateExpiredHolds(LocalDateTime.now());
-        if (deactivated > 0) {
-            System.out.println("Deactivated " + deactivated + " expired seat holds");
+        List<SeatHold> expiredHolds = seatHoldRepository.findExpiredHolds(LocalDateTime.now());
+        if (!expiredHolds.isEmpty()) {
+            releaseActiveHolds(expiredHolds);
+            System.out.println("Deactivated " + expiredHolds.size() + " expired seat holds");
+        }
+    }
+    
+    private Set<SeatPosition> validateSeats(ScreeningSeatState state, List<Map<String, Integer>> seats) {
+        Set<SeatPosition> requested = new LinkedHashSet<>();
+        for (Map<String, Integer> seat : seats) {
+            Integer row = seat.get("row");
+            Integer seatNumber = seat.get("seat");
+            
+            if (row == null || seatNumber == null || !state.isValidSeat(row, seatNumber)) {
+                throw new RuntimeException("Invalid seat: Row " + row + ", Seat " + seatNumber);
+            }
+            if (!requested.add(new SeatPosition(row, seatNumber))) {
+                throw new RuntimeException("Duplicate seat: Row " + row + ", Seat " + seatNumber);
+            }
         }
+        if (requested.isEmpty()) {
+            throw new RuntimeException("At least one seat must be selected");
+        }
+        return requested;
+    }
+    
+    private List<SeatConflictDTO> findConflicts(ScreeningSeatState state, Set<SeatPosition> requested) {
+        List<SeatConflictDTO> conflicts = new ArrayList<>();
+        for (SeatPosition position : requested) {
+            byte status = state.getStatus(position.getRow(), position.getSeat());
+            if (status == ScreeningSeatState.RESERVED) {
+                conflicts.add(new SeatConflictDTO(position.getRow(), position.getSeat(), "RESERVED"));
+            } else if (status == ScreeningSeatState.HELD) {
+                conflicts.add(new SeatConflictDTO(position.getRow(), position.getSeat(), "HELD"));
+            }
+        }
+        return conflicts;
+    }
+    
+    /**
+     * Deactivates holds one screening at a time on that screening's writer thread.
+     * Holds are re-read there so ones expired or released in the meantime are skipped.
+     */
+    private void releaseActiveHolds(List<SeatHold> holds) {
+        holds.stream()
+                .collect(Collectors.groupingBy(h -> h.getScreening().getId(),
+                        Collectors.mapping(SeatHold::getId, Collectors.toList())))
+                .forEach((screeningId, holdIds) -> seatMutationExecutor.execute(screeningId, () ->
+                        transactionTemplate.execute(status -> {
+                            List<SeatHold> active = seatHoldRepository.findAllById(holdIds).stream()
+                                    .filter(h -> Boolean.TRUE.equals(h.getIsActive()))
+                                    .collect(Collectors.toList());
+                            if (active.isEmpty()) {
+                                return null;
+                            }
+                            List<Long> activeIds = active.stream().map(SeatHold::getId).collect(Collectors.toList());
+                            seatHoldRepository.deleteHolds(activeIds);
+                            seatCounterService.adjust(screeningId, 0, -activeIds.size());
+                            seatInventoryService.releaseHeld(screeningId, toPositions(active));
+                            holdExpiryService.untrack(activeIds);
+                            return null;
+                        })));
+    }
+    
+    private static List<SeatPosition> toPositions(List<SeatHold> holds) {
+        return holds.stream()
+                .map(h -> new SeatPosition(h.getRow(), h.getSeat()))
+                .collect(Collectors.toList());
     }
 }
@@ -0,0 +1,183 @@
+package com.cinema.ticketsystem.service.implementation;
+
+import com.cinema.ticketsystem.dto.ScreeningDTO;
+import com.cinema.ticketsystem.dto.ShowtimeDTO;
+import com.cinema.ticketsystem.inventory.AfterCommit;
+import com.cinema.ticketsystem.inventory.SeatStatusChangedEvent;
+import com.cinema.ticketsystem.inventory.ShowtimeDay;
+import com.cinema.ticketsystem.model.Cinema;
+import com.cinema.ticketsystem.model.Screening;
+import com.cinema.ticketsystem.repository.ScreeningRepository;
+import com.cinema.ticketsystem.service.SeatInventoryService;
+import com.cinema.ticketsystem.service.ShowtimeService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Serves showtimes by day from memory.
+ * A day is built on first request with one screening query and one seat counter query;
+ * concurrent requests for a day that is still building wait for that single build instead of
+ * starting their own. Built days are then kept current by screening create and delete and by
+ * seat change events, without going back to the database.
+ */
+@Slf4j
+@Service
+public class ShowtimeServiceImpl implements ShowtimeService {
+    
+    private final ScreeningRepository screeningRepository;
+    private final SeatInventoryService seatInventoryService;
+    private final int maxDaysAhead;
+    
+    private final Map<LocalDate, CompletableFuture<ShowtimeDay>> days = new ConcurrentHashMap<>();
+    
+    public ShowtimeServiceImpl(ScreeningRepository screeningRepository,
+                               SeatInventoryService seatInventoryService,
+                               @Value("${app.showtimes.max-days-ahead:90}") int maxDaysAhead) {
+        this.screeningRepository = screeningRepository;
+        this.seatInventoryService = seatInventoryService;
+        this.maxDaysAhead = maxDaysAhead;
+    }
+    
+    public List<ShowtimeDTO> getShowtimes(LocalDate date, Long cinemaId, Long movieId) {
+        LocalDate today = LocalDate.now();
+        LocalDate day = date != null ? date : today;
+        if (day.isBefore(today) || day.isAfter(today.plusDays(maxDaysAhead))) {
+            throw new RuntimeException("Showtimes are available from today up to " + maxDaysAhead + " days ahead");
+        }
+        
+        ShowtimeDay showtimeDay = getDay(day);
+        List<ShowtimeDay.Showtime> showtimes;
+        if (cinemaId != null) {
+            showtimes = showtimeDay.getByCinema(cinemaId);
+        } else if (movieId != null) {
+            showtimes = showtimeDay.getByMovie(movieId);
+        } else {
+            showtimes = showtimeDay.getAll();
+        }
+        return showtimes.stream()
+                .filter(showtime -> movieId == null || movieId.equals(showtime.getMovieId()))
+                .map(ShowtimeDay.Showtime::toDTO)
+                .collect(Collectors.toList());
+    }
+    
+    public void screeningCreated(Screening screening) {
+        ShowtimeDay.Showtime showtime = toShowtime(screening);
+        AfterCommit.run(() -> apply(showtime.getStartDateTime().toLocalDate(), day -> day.put(showtime)));
+    }
+    
+    // Bulk creation merges each day once instead of once per screening
+    public void screeningsCreated(List<Screening> screenings) {
+        Map<LocalDate, List<ShowtimeDay.Showtime>> byDate = screenings.stream()
+                .map(this::toShowtime)
+                .collect(Collectors.groupingBy(showtime -> showtime.getStartDateTime().toLocalDate()));
+        AfterCommit.run(() -> byDate.forEach((date, showtimes) -> apply(date, day -> day.putAll(showtimes))));
+    }
+    
+    public void screeningDeleted(Long screeningId, LocalDateTime startDateTime) {
+        AfterCommit.run(() -> apply(startDateTime.toLocalDate(), day -> day.remove(screeningId)));
+    }
+    
+    // Cinema and movie names are copied into the entries, so renames rebuild on next request
+    public void invalidateAll() {
+        AfterCommit.run(days::clear);
+    }
+    
+    @EventListener
+    public void onSeatStatusChanged(SeatStatusChangedEvent event) {
+        Long screeningId = event.getScreeningId();
+        int seatsLeft = seatInventoryService.getState(screeningId).getAvailableCount();
+        for (CompletableFuture<ShowtimeDay> day : days.values()) {
+            day.thenAccept(showtimeDay -> {
+                ShowtimeDay.Showtime showtime = showtimeDay.get(screeningId);
+                if (showtime != null) {
+                    showtime.setSeatsLeft(seatsLeft);
+                }
+            });
+        }
+    }
+    
+    @Scheduled(fixedRate = 3600000) // Run every hour
+    public void evictPastDays() {
+        LocalDate today = LocalDate.now();
+        days.keySet().removeIf(day -> day.isBefore(today));
+    }
+    
+    /**
+     * Returns the built day, building it on this thread if no other request is already doing so.
+     */
+    private ShowtimeDay getDay(LocalDate date) {
+        CompletableFuture<ShowtimeDay> day = days.get(date);
+        if (day == null) {
+            CompletableFuture<ShowtimeDay> building = new CompletableFuture<>();
+            day = days.putIfAbsent(date, building);
+            if (day == null) {
+                day = building;
+                try {
+                    building.complete(build(date));
+                } catch (RuntimeException e) {
+                    days.remove(date, building);
+                    building.completeExceptionally(e);
+                }
+            }
+        }
+        try {
+            return day.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw e;
+        }
+    }
+    
+    // Changes that commit while a day is building are applied once the build completes
+    private void apply(LocalDate date, Consumer<ShowtimeDay> change) {
+        CompletableFuture<ShowtimeDay> day = days.get(date);
+        if (day != null) {
+            day.thenAccept(change);
+        }
+    }
+    
+    private ShowtimeDay.Showtime toShowtime(Screening screening) {
+        Cinema cinema = screening.getCinema();
+        int totalSeats = cinema.getRows() * cinema.getSeatsPerRow();
+        return new ShowtimeDay.Showtime(screening.getId(), cinema.getId(), cinema.getName(),
+                screening.getMovie().getId(), screening.getMovie().getTitle(), screening.getStartDateTime(),
+                screening.getTicketPrice(), totalSeats, totalSeats);
+    }
+    
+    private ShowtimeDay build(LocalDate date) {
+        LocalDateTime from = date.atStartOfDay();
+        LocalDateTime to = from.plusDays(1);
+        Map<Long, Integer> taken = new HashMap<>();
+        for (Object[] row : screeningRepository.findSeatCountersStartingBetween(from, to)) {
+            taken.put((Long) row[0], (Integer) row[1] + (Integer) row[2]);
+        }
+        
+        List<ShowtimeDay.Showtime> showtimes = new ArrayList<>();
+        for (ScreeningDTO screening : screeningRepository.findStartingBetween(from, to)) {
+            int totalSeats = screening.getRows() * screening.getSeatsPerRow();
+            showtimes.add(new ShowtimeDay.Showtime(screening.getId(), screening.getCinemaId(),
+                    screening.getCinemaName(), screening.getMovieId(), screening.getMovieTitle(),
+                    screening.getStartDateTime(), screening.getTicketPrice(), totalSeats,
+                    Math.max(0, totalSeats - taken.getOrDefault(screening.getId(), 0))));
+        }
+        log.debug("Built showtimes for {}: {} screenings", date, showtimes.size());
+        return new ShowtimeDay(date, showtimes);
+    }
+}
@@ -1,10 +1,19 @@
 package com.cinema.ticketsystem.service.implementation;
 
 import com.cinema.ticketsystem.dto.*;
+import com.cinema.ticketsystem.inventory.SeatMutationExecutor;
 import com.cinema.ticketsystem.mapper.UserMapper;
 import com.cinema.ticketsystem.model.User;
+import com.cinema.ticketsystem.repository.PaymentRepository;
+import com.cinema.ticketsystem.repository.ReservationRepository;
+import com.cinema.ticketsystem.repository.ReviewRepository;
+import com.cinema.ticketsystem.repository.SeatHoldRepository;
 import com.cinema.ticketsystem.repository.UserRepository;
 import com.cinema.ticketsystem.security.JwtTokenUtil;
+import com.cinema.ticketsystem.service.HoldExpiryService;
+import com.cinema.ticketsystem.service.MovieService;
+import com.cinema.ticketsystem.service.SeatCounterService;
+import com.cinema.ticketsystem.service.SeatInventoryService;
 import com.cinema.ticketsystem.service.UserService;
 import jakarta.persistence.OptimisticLockException;
 import lombok.RequiredArgsConstructor;
@@ -15,8 +24,12 @@ import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -29,6 +42,16 @@ public class UserServiceImpl implements UserService {
     private final AuthenticationManager authenticationManager;
     private final UserDetailsService userDetailsService;
     private final UserMapper userMapper;
+    private final ReservationRepository reservationRepository;
+    private final SeatHoldRepository seatHoldRepository;
+    private final PaymentRepository paymentRepository;
+    private final ReviewRepository reviewRepository;
+    private final SeatInventoryService seatInventoryService;
+    private final HoldExpiryService holdExpiryService;
+    private final MovieService movieService;
+    private final SeatCounterService seatCounterService;
+    private final SeatMutationExecutor seatMutationExecutor;
+    private final TransactionTemplate transactionTemplate;
     
     @Transactional
     public AuthResponse register(RegisterRequest request) {
@@ -120,13 +143,54 @@ public class UserServiceImpl implements UserService {
     @SuppressWarnings("null")
     @Transactional
     public void deleteUser(Long id) {
-        User user = userRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+        if (id == null || !userRepository.existsById(id)) {
+            throw new RuntimeException("User not found");
+        }
         
-        try {
-            userRepository.delete(user);
-        } catch (OptimisticLockException e) {
-            throw new RuntimeException("The user was modified by another user. Please reload and try again.");
+        // Seats are freed screening by screening on each screening's writer thread, like every other seat write
+        Set<Long> screeningIds = new HashSet<>(reservationRepository.findScreeningIdsByUserId(id));
+        screeningIds.addAll(seatHoldRepository.findScreeningIdsByUserId(id));
+        for (Long screeningId : screeningIds) {
+            seatMutationExecutor.execute(screeningId, () -> transactionTemplate.execute(status -> {
+                releaseSeats(id, screeningId);
+                return null;
+            }));
+        }
+        
+        // Whatever is left holds no seats: payments without a reservation, inactive holds and reviews
+        List<Long> reviewedMovieIds = reviewRepository.findMovieIdsByUserId(id);
+        paymentRepository.deleteAllForUser(id);
+        seatHoldRepository.deleteAllForUser(id);
+        reservationRepository.deleteAllForUser(id);
+        reviewRepository.deleteAllForUser(id);
+        userRepository.deleteAllByIdInBatch(List.of(id));
+        
+        holdExpiryService.untrackUser(id);
+        movieService.refreshAverageRatings(reviewedMovieIds);
+    }
+    
+    private void releaseSeats(Long userId, Long screeningId) {
+        // Read what the deletes free up before the rows are gone
+        List<SeatPosition> reserved = toPositions(
+                reservationRepository.findSeatPositionsByUserIdAndScreeningId(userId, screeningId));
+        List<SeatPosition> held = toPositions(
+                seatHoldRepository.findSeatPositionsByUserIdAndScreeningId(userId, screeningId));
+        
+        // Set-based deletes, child-first, instead of loading every reservation through the cascade
+        paymentRepository.deleteAllForUserAndScreening(userId, screeningId);
+        seatHoldRepository.deleteAllForUserAndScreening(userId, screeningId);
+        reservationRepository.deleteAllForUserAndScreening(userId, screeningId);
+        
+        seatCounterService.adjust(screeningId, -reserved.size(), -held.size());
+        seatInventoryService.releaseReserved(screeningId, reserved);
+        seatInventoryService.releaseHeld(screeningId, held);
+    }
+    
+    private static List<SeatPosition> toPositions(List<Object[]> rows) {
+        List<SeatPosition> seats = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            seats.add(new SeatPosition((Integer) row[0], (Integer) row[1]));
         }
+        return seats;
     }
 }
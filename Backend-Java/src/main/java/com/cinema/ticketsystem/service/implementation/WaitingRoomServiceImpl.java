@@ -0,0 +1,201 @@
+package com.cinema.ticketsystem.service.implementation;
+
+import com.cinema.ticketsystem.service.SeatInventoryService;
+import com.cinema.ticketsystem.service.WaitingRoomService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory virtual waiting room for booking endpoints.
+ * Each screening has a ticket counter and an admitted-up-to counter; joining takes the
+ * next ticket and a scheduler moves the admitted mark forward at a fixed rate, so a queue
+ * position is just the difference of two atomics. Tokens are HMAC-signed and carry the
+ * screening, ticket and user, so no per-token state is stored. A semaphore caps how many
+ * admitted booking requests run at once.
+ */
+@Slf4j
+@Service
+public class WaitingRoomServiceImpl implements WaitingRoomService {
+    
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+    
+    private final SeatInventoryService seatInventoryService;
+    private final boolean enabled;
+    private final int admitPerSecond;
+    private final long tokenTtlMillis;
+    private final Semaphore bookingPermits;
+    private final SecretKeySpec signingKey;
+    
+    private final Map<Long, Queue> queues = new ConcurrentHashMap<>();
+    
+    public WaitingRoomServiceImpl(SeatInventoryService seatInventoryService,
+                                  @Value("${app.waiting-room.enabled:false}") boolean enabled,
+                                  @Value("${app.waiting-room.admit-per-second:50}") int admitPerSecond,
+                                  @Value("${app.waiting-room.token-ttl-minutes:30}") long tokenTtlMinutes,
+                                  @Value("${app.waiting-room.max-concurrent-bookings:64}") int maxConcurrentBookings) {
+        this.seatInventoryService = seatInventoryService;
+        this.enabled = enabled;
+        this.admitPerSecond = Math.max(1, admitPerSecond);
+        this.tokenTtlMillis = TimeUnit.MINUTES.toMillis(tokenTtlMinutes);
+        this.bookingPermits = new Semaphore(Math.max(1, maxConcurrentBookings));
+        
+        // Tokens only need to outlive the queue they were issued for, which is in memory too
+        byte[] key = new byte[32];
+        new SecureRandom().nextBytes(key);
+        this.signingKey = new SecretKeySpec(key, HMAC_ALGORITHM);
+    }
+    
+    public boolean isEnabled() {
+        return enabled;
+    }
+    
+    public Map<String, Object> join(Long userId, Long screeningId) {
+        if (userId == null) {
+            throw new RuntimeException("User ID cannot be null");
+        }
+        if (screeningId == null) {
+            throw new RuntimeException("Screening ID cannot be null");
+        }
+        // Fails fast for unknown screenings without a query once the inventory is loaded
+        seatInventoryService.getState(screeningId);
+        
+        long now = System.currentTimeMillis();
+        long[] ticket = new long[1];
+        Queue queue = queues.compute(screeningId, (id, existing) -> {
+            Queue target = existing != null ? existing : new Queue();
+            ticket[0] = target.issued.incrementAndGet();
+            target.lastJoinMillis = now;
+            return target;
+        });
+        
+        String token = sign(screeningId + ":" + ticket[0] + ":" + userId + ":" + now);
+        Map<String, Object> result = status(screeningId, ticket[0], queue);
+        result.put("token", token);
+        return result;
+    }
+    
+    public Map<String, Object> getStatus(String token) {
+        Ticket ticket = parse(token);
+        if (ticket == null || ticket.isExpired(tokenTtlMillis)) {
+            throw new RuntimeException("Invalid or expired queue token");
+        }
+        Queue queue = queues.get(ticket.screeningId);
+        if (queue == null) {
+            throw new RuntimeException("Invalid or expired queue token");
+        }
+        return status(ticket.screeningId, ticket.number, queue);
+    }
+    
+    // Returns the screening the token admits the user to, or null if it admits them to none
+    public Long getAdmittedScreeningId(String token, Long userId) {
+        Ticket ticket = parse(token);
+        if (ticket == null || ticket.isExpired(tokenTtlMillis) || !ticket.userId.equals(userId)) {
+            return null;
+        }
+        Queue queue = queues.get(ticket.screeningId);
+        return queue != null && ticket.number <= queue.admitted.get() ? ticket.screeningId : null;
+    }
+    
+    public boolean tryEnterBooking() {
+        return bookingPermits.tryAcquire();
+    }
+    
+    public void leaveBooking() {
+        bookingPermits.release();
+    }
+    
+    @Scheduled(fixedRate = 1000)
+    public void admitNextBatch() {
+        long now = System.currentTimeMillis();
+        for (Long screeningId : queues.keySet()) {
+            queues.computeIfPresent(screeningId, (id, queue) -> {
+                long issued = queue.issued.get();
+                long admitted = queue.admitted.accumulateAndGet(issued,
+                        (current, limit) -> Math.min(limit, current + admitPerSecond));
+                // Drop drained queues once every token they issued has expired
+                if (admitted == issued && now - queue.lastJoinMillis > tokenTtlMillis) {
+                    return null;
+                }
+                return queue;
+            });
+        }
+    }
+    
+    private Map<String, Object> status(Long screeningId, long ticket, Queue queue) {
+        long position = Math.max(0, ticket - queue.admitted.get());
+        Map<String, Object> result = new HashMap<>();
+        result.put("screeningId", screeningId);
+        result.put("position", position);
+        result.put("admitted", position == 0);
+        result.put("estimatedWaitSeconds", (position + admitPerSecond - 1) / admitPerSecond);
+        return result;
+    }
+    
+    private String sign(String payload) {
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        byte[] payloadBytes = payload.getBytes(StandardCharsets.UTF_8);
+        return encoder.encodeToString(payloadBytes) + "." + encoder.encodeToString(hmac(payloadBytes));
+    }
+    
+    private Ticket parse(String token) {
+        if (token == null) {
+            return null;
+        }
+        int dot = token.indexOf('.');
+        if (dot < 0) {
+            return null;
+        }
+        try {
+            Base64.Decoder decoder = Base64.getUrlDecoder();
+            byte[] payload = decoder.decode(token.substring(0, dot));
+            byte[] signature = decoder.decode(token.substring(dot + 1));
+            if (!MessageDigest.isEqual(hmac(payload), signature)) {
+                return null;
+            }
+            String[] parts = new String(payload, StandardCharsets.UTF_8).split(":");
+            return new Ticket(Long.valueOf(parts[0]), Long.parseLong(parts[1]),
+                    Long.valueOf(parts[2]), Long.parseLong(parts[3]));
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            return null;
+        }
+    }
+    
+    private byte[] hmac(byte[] payload) {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(signingKey);
+            return mac.doFinal(payload);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Unable to sign queue token", e);
+        }
+    }
+    
+    private static final class Queue {
+        private final AtomicLong issued = new AtomicLong();
+        private final AtomicLong admitted = new AtomicLong();
+        private volatile long lastJoinMillis;
+    }
+    
+    private record Ticket(Long screeningId, long number, Long userId, long issuedAtMillis) {
+        
+        private boolean isExpired(long ttlMillis) {
+            return System.currentTimeMillis() - issuedAtMillis > ttlMillis;
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package com.cinema.ticketsystem.inventory;
+
+import com.cinema.ticketsystem.dto.SeatPosition;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BestSeatFinderTest {
+
+    @Test
+    void emptyAuditoriumGetsTheCentreOfTheFirstBandRow() {
+        BestSeatFinder.Result result = BestSeatFinder.withDefaultBand(new long[40], 40, 50).find(4);
+
+        assertThat(result.isContiguous()).isTrue();
+        assertThat(result.getSeats()).containsExactly(
+                seat(16, 24), seat(16, 25), seat(16, 26), seat(16, 27));
+    }
+
+    @Test
+    void blockSlidesToTheRowEdgeWhenOnlyTheEdgeIsFree() {
+        long[] occupied = fullyBooked(3, 50);
+        free(occupied, 50, 2, 1, 3);
+        assertThat(BestSeatFinder.withDefaultBand(occupied, 3, 50).find(3).getSeats())
+                .containsExactly(seat(2, 1), seat(2, 2), seat(2, 3));
+
+        occupied = fullyBooked(3, 50);
+        free(occupied, 50, 2, 48, 50);
+        assertThat(BestSeatFinder.withDefaultBand(occupied, 3, 50).find(3).getSeats())
+                .containsExactly(seat(2, 48), seat(2, 49), seat(2, 50));
+    }
+
+    @Test
+    void runAcrossAWordBoundaryIsOneBlock() {
+        long[] occupied = fullyBooked(2, 130);
+        free(occupied, 130, 1, 62, 66);
+
+        BestSeatFinder.Result result = BestSeatFinder.withDefaultBand(occupied, 2, 130).find(5);
+
+        assertThat(result.isContiguous()).isTrue();
+        assertThat(result.getSeats()).containsExactly(
+                seat(1, 62), seat(1, 63), seat(1, 64), seat(1, 65), seat(1, 66));
+    }
+
+    @Test
+    void fullyBookedBandRowsAreSkippedForTheNearestRow() {
+        // Default band of a 10-row auditorium is rows 4 to 8
+        long[] occupied = new long[10];
+        for (int row = 4; row <= 8; row++) {
+            occupied[row - 1] = fullRow(10);
+        }
+
+        BestSeatFinder.Result result = BestSeatFinder.withDefaultBand(occupied, 10, 10).find(2);
+
+        assertThat(result.isContiguous()).isTrue();
+        assertThat(result.getSeats()).containsExactly(seat(3, 5), seat(3, 6));
+    }
+
+    @Test
+    void holdsThatSplitTheOnlyFreeRowSplitTheParty() {
+        long[] occupied = fullyBooked(5, 10);
+        free(occupied, 10, 3, 1, 10);
+        // Held seats 5 and 6 leave two runs of four
+        occupied[2] |= 1L << 4 | 1L << 5;
+
+        BestSeatFinder.Result result = BestSeatFinder.withDefaultBand(occupied, 5, 10).find(6);
+
+        assertThat(result.isContiguous()).isFalse();
+        assertThat(result.getSeats()).hasSize(6).doesNotHaveDuplicates()
+                .allSatisfy(position -> {
+                    assertThat(position.getRow()).isEqualTo(3);
+                    assertThat(position.getSeat()).isNotIn(5, 6);
+                });
+    }
+
+    @Test
+    void tooFewFreeSeatsReturnsNothing() {
+        long[] occupied = fullyBooked(4, 10);
+        free(occupied, 10, 1, 1, 2);
+        free(occupied, 10, 4, 9, 10);
+
+        BestSeatFinder.Result result = BestSeatFinder.withDefaultBand(occupied, 4, 10).find(5);
+
+        assertThat(result.getSeats()).isEmpty();
+    }
+
+    @Test
+    void randomLayoutsOnlyGetFreeSeatsAndSplitOnlyWhenNoRunIsLongEnough() {
+        Random random = new Random(7);
+        for (int round = 0; round < 500; round++) {
+            int rows = 1 + random.nextInt(40);
+            int seatsPerRow = 1 + random.nextInt(130);
+            long[] occupied = randomOccupancy(rows, seatsPerRow, random.nextDouble(), random);
+            int partySize = 1 + random.nextInt(12);
+
+            BestSeatFinder.Result result = BestSeatFinder.withDefaultBand(occupied.clone(), rows, seatsPerRow)
+                    .find(partySize);
+
+            int free = 0;
+            int longestRun = 0;
+            for (int row = 1; row <= rows; row++) {
+                int run = 0;
+                for (int seat = 1; seat <= seatsPerRow; seat++) {
+                    run = isOccupied(occupied, seatsPerRow, row, seat) ? 0 : run + 1;
+                    free += run > 0 ? 1 : 0;
+                    longestRun = Math.max(longestRun, run);
+                }
+            }
+            if (free < partySize) {
+                assertThat(result.getSeats()).isEmpty();
+                continue;
+            }
+            assertThat(result.getSeats()).hasSize(partySize).doesNotHaveDuplicates();
+            assertThat(result.isContiguous()).isEqualTo(longestRun >= partySize);
+            for (SeatPosition position : result.getSeats()) {
+                assertThat(isOccupied(occupied, seatsPerRow, position.getRow(), position.getSeat()))
+                        .as("seat %s in round %d", position, round)
+                        .isFalse();
+            }
+        }
+    }
+
+    /**
+     * Rough timing of a 40x50 auditorium at several occupancy levels, printed for comparison
+     * between runs. The bound only catches an accidental quadratic scan.
+     */
+    @Test
+    void findOn40x50Layouts() {
+        Random random = new Random(11);
+        int iterations = 20000;
+        for (double occupancy : new double[] {0.0, 0.5, 0.9, 0.98}) {
+            long[] occupied = randomOccupancy(40, 50, occupancy, random);
+            Set<Integer> sink = new HashSet<>();
+            for (int i = 0; i < iterations; i++) {
+                sink.add(BestSeatFinder.withDefaultBand(occupied.clone(), 40, 50).find(1 + i % 8).getSeats().size());
+            }
+            long started = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                sink.add(BestSeatFinder.withDefaultBand(occupied.clone(), 40, 50).find(1 + i % 8).getSeats().size());
+            }
+            long nanosPerFind = (System.nanoTime() - started) / iterations;
+            System.out.printf("BestSeatFinder 40x50 at %.0f%% occupancy: %d ns per find%n", occupancy * 100, nanosPerFind);
+            assertThat(sink).isNotEmpty();
+            assertThat(nanosPerFind).isLessThan(1_000_000);
+        }
+    }
+
+    private static long[] randomOccupancy(int rows, int seatsPerRow, double occupancy, Random random) {
+        long[] occupied = new long[rows * ((seatsPerRow + 63) >>> 6)];
+        for (int row = 1; row <= rows; row++) {
+            for (int seat = 1; seat <= seatsPerRow; seat++) {
+                if (random.nextDouble() < occupancy) {
+                    occupied[index(seatsPerRow, row, seat)] |= 1L << (seat - 1);
+                }
+            }
+        }
+        return occupied;
+    }
+
+    private static long[] fullyBooked(int rows, int seatsPerRow) {
+        int wordsPerRow = (seatsPerRow + 63) >>> 6;
+        long[] occupied = new long[rows * wordsPerRow];
+        for (int row = 1; row <= rows; row++) {
+            for (int seat = 1; seat <= seatsPerRow; seat++) {
+                occupied[index(seatsPerRow, row, seat)] |= 1L << (seat - 1);
+            }
+        }
+        return occupied;
+    }
+
+    private static long fullRow(int seatsPerRow) {
+        return seatsPerRow == 64 ? -1L : (1L << seatsPerRow) - 1;
+    }
+
+    private static void free(long[] occupied, int seatsPerRow, int row, int fromSeat, int toSeat) {
+        for (int seat = fromSeat; seat <= toSeat; seat++) {
+            occupied[index(seatsPerRow, row, seat)] &= ~(1L << (seat - 1));
+        }
+    }
+
+    private static boolean isOccupied(long[] occupied, int seatsPerRow, int row, int seat) {
+        return (occupied[index(seatsPerRow, row, seat)] & (1L << (seat - 1))) != 0;
+    }
+
+    private static int index(int seatsPerRow, int row, int seat) {
+        return (row - 1) * ((seatsPerRow + 63) >>> 6) + ((seat - 1) >>> 6);
+    }
+
+    private static SeatPosition seat(int row, int seat) {
+        return new SeatPosition(row, seat);
+    }
+}
@@ -0,0 +1,70 @@
+package com.cinema.ticketsystem.inventory;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CinemaScheduleTest {
+
+    private static final LocalDateTime NINE = LocalDateTime.of(2030, 1, 1, 9, 0);
+
+    @Test
+    void addIfFreeReplacesTheSameScreeningsSlot() {
+        CinemaSchedule schedule = new CinemaSchedule();
+        schedule.add(1L, NINE, NINE.plusHours(2));
+
+        assertThat(schedule.addIfFree(1L, NINE.plusHours(1), NINE.plusHours(3))).isEmpty();
+
+        assertThat(schedule.size()).isEqualTo(1);
+        assertThat(schedule.findOverlapping(NINE, NINE.plusMinutes(30))).isEmpty();
+        assertThat(schedule.findOverlapping(NINE.plusHours(2), NINE.plusHours(4)))
+                .extracting(CinemaSchedule.Slot::screeningId).containsExactly(1L);
+    }
+
+    @Test
+    void conflictingSlotIsNotAdded() {
+        CinemaSchedule schedule = new CinemaSchedule();
+        schedule.add(1L, NINE, NINE.plusHours(2));
+
+        assertThat(schedule.addIfFree(2L, NINE.plusHours(1), NINE.plusHours(3)))
+                .extracting(CinemaSchedule.Slot::screeningId).containsExactly(1L);
+        assertThat(schedule.size()).isEqualTo(1);
+
+        schedule.remove(2L);
+        assertThat(schedule.size()).isEqualTo(1);
+    }
+
+    @Test
+    void removedAndPrunedSlotsFreeTheirTime() {
+        CinemaSchedule schedule = new CinemaSchedule();
+        schedule.add(1L, NINE, NINE.plusHours(2));
+        schedule.add(2L, NINE.plusHours(2), NINE.plusHours(4));
+        schedule.add(3L, NINE.plusHours(4), NINE.plusHours(6));
+
+        schedule.remove(2L);
+        assertThat(schedule.findNextFree(NINE, 120)).isEqualTo(NINE.plusHours(2));
+
+        schedule.pruneBefore(NINE.plusHours(3));
+        assertThat(schedule.size()).isEqualTo(1);
+        // A pruned screening can be added again without leaving a stale entry behind
+        assertThat(schedule.addIfFree(1L, NINE.plusHours(6), NINE.plusHours(8))).isEmpty();
+        assertThat(schedule.size()).isEqualTo(2);
+    }
+
+    @Test
+    void copyIsIndependent() {
+        CinemaSchedule schedule = new CinemaSchedule();
+        schedule.add(1L, NINE, NINE.plusHours(2));
+
+        CinemaSchedule copy = schedule.copy();
+        copy.remove(1L);
+        copy.add(2L, NINE, NINE.plusHours(1));
+
+        assertThat(schedule.findOverlapping(NINE, NINE.plusHours(1)))
+                .extracting(CinemaSchedule.Slot::screeningId).containsExactly(1L);
+        assertThat(copy.findOverlapping(NINE, NINE.plusHours(1)))
+                .extracting(CinemaSchedule.Slot::screeningId).containsExactly(2L);
+    }
+}
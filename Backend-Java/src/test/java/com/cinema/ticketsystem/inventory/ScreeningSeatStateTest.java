@@ -0,0 +1,74 @@
+package com.cinema.ticketsystem.inventory;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ScreeningSeatStateTest {
+
+    @Test
+    void packedStatusesDecodeToTheSameStatusesForEverySeat() {
+        // Row widths below, at and above one 64-bit word, and totals that do not fill the last byte
+        int[][] sizes = {{1, 1}, {3, 7}, {10, 10}, {40, 50}, {5, 64}, {7, 65}, {9, 130}};
+        Random random = new Random(42);
+        for (int[] size : sizes) {
+            ScreeningSeatState state = randomState(size[0], size[1], random);
+
+            byte[] statuses = state.getStatuses();
+            byte[] packed = state.getPackedStatuses();
+
+            assertThat(packed).hasSize((state.getTotalSeats() + 3) / 4);
+            for (int index = 0; index < statuses.length; index++) {
+                int row = index / state.getSeatsPerRow() + 1;
+                int seat = index % state.getSeatsPerRow() + 1;
+                assertThat(decode(packed, index))
+                        .as("seat %d-%d of a %dx%d layout", row, seat, size[0], size[1])
+                        .isEqualTo(statuses[index])
+                        .isEqualTo(state.getStatus(row, seat));
+            }
+            for (int index = statuses.length; index < packed.length * 4; index++) {
+                assertThat(decode(packed, index)).as("padding after the last seat").isZero();
+            }
+        }
+    }
+
+    @Test
+    void reservingAHeldSeatReplacesTheHold() {
+        ScreeningSeatState state = state(2, 3);
+        state.markHeld(1, 2);
+        state.markReserved(1, 2);
+        state.markHeld(1, 2);
+
+        assertThat(decode(state.getPackedStatuses(), 1)).isEqualTo(ScreeningSeatState.RESERVED);
+        assertThat(state.getHeldCount()).isZero();
+        assertThat(state.getReservedCount()).isEqualTo(1);
+    }
+
+    private static ScreeningSeatState randomState(int rows, int seatsPerRow, Random random) {
+        ScreeningSeatState state = state(rows, seatsPerRow);
+        for (int row = 1; row <= rows; row++) {
+            for (int seat = 1; seat <= seatsPerRow; seat++) {
+                int pick = random.nextInt(3);
+                if (pick == 1) {
+                    state.markHeld(row, seat);
+                } else if (pick == 2) {
+                    state.markReserved(row, seat);
+                }
+            }
+        }
+        return state;
+    }
+
+    private static ScreeningSeatState state(int rows, int seatsPerRow) {
+        return new ScreeningSeatState(1L, 1L, "Test Cinema", 1L, "Test Movie",
+                LocalDateTime.now().plusDays(1), new AuditoriumLayout(rows, seatsPerRow));
+    }
+
+    // Mirrors the client: 2 bits per seat, 4 seats per byte, lowest bits first
+    private static byte decode(byte[] packed, int index) {
+        return (byte) ((packed[index >>> 2] >>> ((index & 3) << 1)) & 3);
+    }
+}
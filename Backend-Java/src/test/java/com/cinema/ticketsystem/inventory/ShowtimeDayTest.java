@@ -0,0 +1,87 @@
+package com.cinema.ticketsystem.inventory;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ShowtimeDayTest {
+
+    private static final LocalDate DAY = LocalDate.of(2030, 1, 1);
+    private static final Comparator<ShowtimeDay.Showtime> ORDER = Comparator
+            .comparing(ShowtimeDay.Showtime::getStartDateTime)
+            .thenComparing(ShowtimeDay.Showtime::getScreeningId);
+
+    @Test
+    void putReplacesAndRemoveDropsFromEveryIndex() {
+        ShowtimeDay day = new ShowtimeDay(DAY, List.of(showtime(1, 1, 1, 10), showtime(2, 1, 2, 12)));
+
+        day.put(showtime(1, 2, 2, 20));
+        assertThat(ids(day.getAll())).containsExactly(2L, 1L);
+        assertThat(ids(day.getByCinema(1L))).containsExactly(2L);
+        assertThat(ids(day.getByCinema(2L))).containsExactly(1L);
+        assertThat(day.getByMovie(1L)).isEmpty();
+        assertThat(ids(day.getByMovie(2L))).containsExactly(2L, 1L);
+
+        day.remove(2L);
+        assertThat(ids(day.getAll())).containsExactly(1L);
+        assertThat(day.getByCinema(1L)).isEmpty();
+        assertThat(day.get(2L)).isNull();
+    }
+
+    @Test
+    void randomChangesMatchAFreshBuild() {
+        Random random = new Random(5);
+        ShowtimeDay day = new ShowtimeDay(DAY, List.of());
+        Map<Long, ShowtimeDay.Showtime> expected = new HashMap<>();
+        for (int step = 0; step < 300; step++) {
+            int action = random.nextInt(3);
+            if (action == 0) {
+                ShowtimeDay.Showtime showtime = randomShowtime(random);
+                day.put(showtime);
+                expected.put(showtime.getScreeningId(), showtime);
+            } else if (action == 1) {
+                long screeningId = 1 + random.nextInt(40);
+                day.remove(screeningId);
+                expected.remove(screeningId);
+            } else {
+                List<ShowtimeDay.Showtime> batch = new ArrayList<>();
+                for (int i = random.nextInt(8); i >= 0; i--) {
+                    batch.add(randomShowtime(random));
+                }
+                day.putAll(batch);
+                batch.forEach(showtime -> expected.put(showtime.getScreeningId(), showtime));
+            }
+
+            ShowtimeDay fresh = new ShowtimeDay(DAY, new ArrayList<>(expected.values()));
+            assertThat(day.getAll()).containsExactlyElementsOf(fresh.getAll()).isSortedAccordingTo(ORDER);
+            for (long id = 1; id <= 4; id++) {
+                assertThat(day.getByCinema(id)).containsExactlyElementsOf(fresh.getByCinema(id));
+                assertThat(day.getByMovie(id)).containsExactlyElementsOf(fresh.getByMovie(id));
+            }
+        }
+    }
+
+    private static ShowtimeDay.Showtime randomShowtime(Random random) {
+        return showtime(1 + random.nextInt(40), 1 + random.nextInt(4), 1 + random.nextInt(4), 9 + random.nextInt(14));
+    }
+
+    private static ShowtimeDay.Showtime showtime(long screeningId, long cinemaId, long movieId, int hour) {
+        return new ShowtimeDay.Showtime(screeningId, cinemaId, "Cinema " + cinemaId, movieId, "Movie " + movieId,
+                LocalDateTime.of(DAY.getYear(), DAY.getMonth(), DAY.getDayOfMonth(), hour, 0),
+                new BigDecimal("12.50"), 100, 100);
+    }
+
+    private static List<Long> ids(List<ShowtimeDay.Showtime> showtimes) {
+        return showtimes.stream().map(ShowtimeDay.Showtime::getScreeningId).toList();
+    }
+}
@@ -0,0 +1,104 @@
+package com.cinema.ticketsystem.repository;
+
+import com.cinema.ticketsystem.model.Cinema;
+import com.cinema.ticketsystem.model.Movie;
+import com.cinema.ticketsystem.model.Reservation;
+import com.cinema.ticketsystem.model.Screening;
+import com.cinema.ticketsystem.model.SeatHold;
+import com.cinema.ticketsystem.model.User;
+import com.cinema.ticketsystem.support.TestFixtures;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.LongSummaryStatistics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Multi-row writes must go out as JDBC batches with pooled sequence ids: every 50 rows cost at
+ * most one insert statement and one sequence call. Without batching, or with allocationSize 1,
+ * each row would prepare its own statements.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+class JdbcBatchingTest {
+
+    private static final int BATCH_SIZE = 50;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private SeatHoldRepository seatHoldRepository;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    private Statistics statistics;
+    private User user;
+    private Screening screening;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+
+        user = TestFixtures.user();
+        Cinema cinema = TestFixtures.cinema(10, 200);
+        Movie movie = TestFixtures.movie("Batched");
+        entityManager.persist(user);
+        entityManager.persist(cinema);
+        entityManager.persist(movie);
+        screening = TestFixtures.screening(cinema, movie, LocalDateTime.now().plusDays(1));
+        entityManager.persist(screening);
+
+        // Draw the first ids so both sequence pools are initialised before anything is measured
+        seatHoldRepository.save(TestFixtures.hold(user, screening, 1, 1, LocalDateTime.now().plusMinutes(5)));
+        reservationRepository.save(TestFixtures.reservation(user, screening, 1, 1));
+        entityManager.flush();
+        statistics.clear();
+    }
+
+    @Test
+    void oneSequenceCallAndOneInsertBatchCoverFiftyHolds() {
+        List<SeatHold> holds = new ArrayList<>();
+        for (int seat = 1; seat <= BATCH_SIZE; seat++) {
+            holds.add(TestFixtures.hold(user, screening, 2, seat, LocalDateTime.now().plusMinutes(5)));
+        }
+
+        seatHoldRepository.saveAll(holds);
+        entityManager.flush();
+
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(BATCH_SIZE);
+        assertThat(statistics.getPrepareStatementCount())
+                .as("one sequence call plus one insert batch")
+                .isLessThanOrEqualTo(2);
+        LongSummaryStatistics ids = holds.stream().mapToLong(SeatHold::getId).summaryStatistics();
+        assertThat(ids.getMax() - ids.getMin()).isEqualTo(BATCH_SIZE - 1);
+    }
+
+    @Test
+    void reservationsAreInsertedInBatchesOfFifty() {
+        int rows = BATCH_SIZE * 2;
+        List<Reservation> reservations = new ArrayList<>();
+        for (int seat = 1; seat <= rows; seat++) {
+            reservations.add(TestFixtures.reservation(user, screening, 3, seat));
+        }
+
+        reservationRepository.saveAll(reservations);
+        entityManager.flush();
+
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(rows);
+        assertThat(statistics.getPrepareStatementCount())
+                .as("at most one sequence call and one insert batch per %d rows", BATCH_SIZE)
+                .isLessThanOrEqualTo(2L * rows / BATCH_SIZE);
+    }
+}
@@ -0,0 +1,121 @@
+package com.cinema.ticketsystem.service;
+
+import com.cinema.ticketsystem.model.Cinema;
+import com.cinema.ticketsystem.model.Movie;
+import com.cinema.ticketsystem.model.Screening;
+import com.cinema.ticketsystem.model.User;
+import com.cinema.ticketsystem.repository.CinemaRepository;
+import com.cinema.ticketsystem.repository.MovieRepository;
+import com.cinema.ticketsystem.repository.ScreeningRepository;
+import com.cinema.ticketsystem.repository.UserRepository;
+import com.cinema.ticketsystem.support.QueryCountInspector;
+import com.cinema.ticketsystem.support.TestFixtures;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Round trips and latency of holdSeats for 1, 10 and 50 seats. The statements issued must not
+ * grow with the seat count: conflicts are checked in memory and the inserts go out as one JDBC
+ * batch. Latencies are printed for comparison between runs, not asserted.
+ */
+@SpringBootTest(properties = {
+        "app.seats.quota.max-seats-per-screening=50",
+        "app.seats.quota.max-active-holds=1000",
+        "app.seats.quota.max-hold-calls-per-minute=1000"
+})
+@ActiveProfiles("test")
+class HoldSeatsRoundTripTest {
+
+    private static final int[] SEAT_COUNTS = {1, 10, 50};
+    private static final int ITERATIONS = 20;
+
+    @Autowired
+    private SeatSelectionService seatSelectionService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CinemaRepository cinemaRepository;
+
+    @Autowired
+    private MovieRepository movieRepository;
+
+    @Autowired
+    private ScreeningRepository screeningRepository;
+
+    private int startOffset;
+
+    @Test
+    void statementsDoNotGrowWithSeatCount() {
+        Movie movie = movieRepository.save(TestFixtures.movie("Hold Harness"));
+        // Warm up the context, sequences and prepared statement cache
+        run(movie, 10, 3);
+
+        Map<Integer, long[]> results = new LinkedHashMap<>();
+        for (int seats : SEAT_COUNTS) {
+            results.put(seats, run(movie, seats, ITERATIONS));
+        }
+
+        results.forEach((seats, result) -> System.out.printf(
+                "holdSeats %2d seats: %.1f statements, median %.2f ms, p95 %.2f ms%n",
+                seats, result[0] / (double) ITERATIONS, result[1] / 1e6, result[2] / 1e6));
+
+        long single = results.get(1)[0];
+        // A larger hold may need one extra sequence call per 50 ids, nothing per seat
+        assertThat(results.get(10)[0]).isLessThanOrEqualTo(single + ITERATIONS);
+        assertThat(results.get(50)[0]).isLessThanOrEqualTo(single + 2L * ITERATIONS);
+    }
+
+    /**
+     * Holds the given number of seats on fresh screenings, returning the total statements,
+     * median and p95 latency in nanoseconds. Seat state is loaded before timing starts.
+     */
+    private long[] run(Movie movie, int seatCount, int iterations) {
+        List<Long> screeningIds = new ArrayList<>();
+        List<Long> userIds = new ArrayList<>();
+        for (int i = 0; i < iterations; i++) {
+            Cinema cinema = cinemaRepository.save(TestFixtures.cinema(10, 10));
+            Screening screening = screeningRepository.save(TestFixtures.screening(cinema, movie,
+                    LocalDateTime.now().plusDays(1).plusHours(++startOffset * 4L)));
+            User user = userRepository.save(TestFixtures.user());
+            seatSelectionService.getPackedSeatMap(screening.getId());
+            screeningIds.add(screening.getId());
+            userIds.add(user.getId());
+        }
+        List<Map<String, Integer>> seats = seats(seatCount);
+
+        long statements = 0;
+        long[] latencies = new long[iterations];
+        for (int i = 0; i < iterations; i++) {
+            // The insert runs on the screening's writer thread, so the total count is used
+            long before = QueryCountInspector.totalCount();
+            long started = System.nanoTime();
+            Map<String, Object> result = seatSelectionService.holdSeats(userIds.get(i), screeningIds.get(i), seats);
+            latencies[i] = System.nanoTime() - started;
+            statements += QueryCountInspector.totalCount() - before;
+            assertThat((List<?>) result.get("holdIds")).hasSize(seatCount);
+        }
+        Arrays.sort(latencies);
+        return new long[] {statements, latencies[iterations / 2], latencies[(int) (iterations * 0.95) - 1]};
+    }
+
+    private static List<Map<String, Integer>> seats(int count) {
+        List<Map<String, Integer>> seats = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            seats.add(Map.of("row", i / 10 + 1, "seat", i % 10 + 1));
+        }
+        return seats;
+    }
+}
@@ -0,0 +1,186 @@
+package com.cinema.ticketsystem.service;
+
+import com.cinema.ticketsystem.model.Cinema;
+import com.cinema.ticketsystem.model.Movie;
+import com.cinema.ticketsystem.model.Reservation;
+import com.cinema.ticketsystem.model.Screening;
+import com.cinema.ticketsystem.model.User;
+import com.cinema.ticketsystem.repository.CinemaRepository;
+import com.cinema.ticketsystem.repository.MovieRepository;
+import com.cinema.ticketsystem.repository.PaymentRepository;
+import com.cinema.ticketsystem.repository.ReservationRepository;
+import com.cinema.ticketsystem.repository.ReviewRepository;
+import com.cinema.ticketsystem.repository.ScreeningRepository;
+import com.cinema.ticketsystem.repository.SeatHoldRepository;
+import com.cinema.ticketsystem.repository.UserRepository;
+import com.cinema.ticketsystem.support.QueryCountInspector;
+import com.cinema.ticketsystem.support.TestFixtures;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Every list endpoint must load its page with a fixed number of statements. Each listed row
+ * points at its own screening, movie or user, so a missing fetch plan shows up as one extra
+ * lazy load per row and the counts at the two sizes differ.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ListQueryCountTest {
+
+    private static final int SMALL = 2;
+    private static final int LARGE = 12;
+    private static final AtomicInteger START_OFFSET = new AtomicInteger();
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CinemaRepository cinemaRepository;
+
+    @Autowired
+    private MovieRepository movieRepository;
+
+    @Autowired
+    private ScreeningRepository screeningRepository;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private ReviewRepository reviewRepository;
+
+    @Autowired
+    private SeatHoldRepository seatHoldRepository;
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @Autowired
+    private MovieService movieService;
+
+    @Autowired
+    private SeatSelectionService seatSelectionService;
+
+    @Autowired
+    private ScreeningService screeningService;
+
+    private User user;
+    private Movie movie;
+
+    @BeforeEach
+    void seedOwners() {
+        user = userRepository.save(TestFixtures.user());
+        movie = movieRepository.save(TestFixtures.movie("Listed Movie"));
+    }
+
+    @Test
+    void myReservations() {
+        assertConstantStatements(rows -> transactionTemplate.executeWithoutResult(status -> {
+            for (int i = 0; i < rows; i++) {
+                reservationRepository.save(TestFixtures.reservation(user, newScreening(), 1, 1));
+            }
+        }), () -> reservationService.getUserReservations(user.getId()));
+    }
+
+    @Test
+    void myPayments() {
+        assertConstantStatements(rows -> transactionTemplate.executeWithoutResult(status -> {
+            for (int i = 0; i < rows; i++) {
+                Reservation reservation = reservationRepository.save(
+                        TestFixtures.reservation(user, newScreening(), 1, 1));
+                paymentRepository.save(TestFixtures.payment(user, reservation));
+            }
+        }), () -> paymentService.getUserPayments(user.getId()));
+    }
+
+    @Test
+    void movieReviews() {
+        assertConstantStatements(rows -> transactionTemplate.executeWithoutResult(status -> {
+            for (int i = 0; i < rows; i++) {
+                reviewRepository.save(TestFixtures.review(userRepository.save(TestFixtures.user()), movie, 7));
+            }
+        }), () -> movieService.getMovieReviews(movie.getId()));
+    }
+
+    @Test
+    void myReviews() {
+        assertConstantStatements(rows -> transactionTemplate.executeWithoutResult(status -> {
+            for (int i = 0; i < rows; i++) {
+                reviewRepository.save(TestFixtures.review(user, movieRepository.save(TestFixtures.movie("Reviewed")), 8));
+            }
+        }), () -> movieService.getUserReviews(user.getId()));
+    }
+
+    @Test
+    void myHolds() {
+        assertConstantStatements(rows -> transactionTemplate.executeWithoutResult(status -> {
+            for (int i = 0; i < rows; i++) {
+                seatHoldRepository.save(TestFixtures.hold(user, newScreening(), 1, 1,
+                        LocalDateTime.now().plusMinutes(10)));
+            }
+        }), () -> seatSelectionService.getUserActiveHolds(user.getId()));
+    }
+
+    @Test
+    void screeningsOfMovie() {
+        assertConstantStatements(rows -> transactionTemplate.executeWithoutResult(status -> {
+            for (int i = 0; i < rows; i++) {
+                Cinema cinema = cinemaRepository.save(TestFixtures.cinema(10, 10));
+                screeningRepository.save(TestFixtures.screening(cinema, movie, nextStart()));
+            }
+        }), () -> screeningService.getScreenings(null, null, null, movie.getId(), null, 50).getScreenings());
+    }
+
+    private void assertConstantStatements(IntConsumer addRows, Supplier<? extends Collection<?>> listing) {
+        addRows.accept(SMALL);
+        long small = countStatements(listing, SMALL);
+        addRows.accept(LARGE - SMALL);
+        long large = countStatements(listing, LARGE);
+        assertThat(large)
+                .as("statements for %d rows compared to %d rows", LARGE, SMALL)
+                .isEqualTo(small);
+    }
+
+    // Runs the listing inside a transaction, as open-in-view does for the real request
+    private long countStatements(Supplier<? extends Collection<?>> listing, int expectedRows) {
+        // The first call may fill in-memory caches such as seat states; only the second is counted
+        transactionTemplate.execute(status -> listing.get());
+        long before = QueryCountInspector.threadCount();
+        Collection<?> rows = transactionTemplate.execute(status -> listing.get());
+        long statements = QueryCountInspector.threadCount() - before;
+        assertThat(rows).hasSize(expectedRows);
+        return statements;
+    }
+
+    // A fresh cinema, movie and screening per row, so lazy loads cannot be served from the session
+    private Screening newScreening() {
+        Cinema cinema = cinemaRepository.save(TestFixtures.cinema(10, 10));
+        Movie screened = movieRepository.save(TestFixtures.movie("Screened " + START_OFFSET.get()));
+        return screeningRepository.save(TestFixtures.screening(cinema, screened, nextStart()));
+    }
+
+    private static LocalDateTime nextStart() {
+        return LocalDateTime.now().plusDays(1).plusHours(START_OFFSET.incrementAndGet() * 4L);
+    }
+}
@@ -0,0 +1,158 @@
+package com.cinema.ticketsystem.service;
+
+import com.cinema.ticketsystem.model.Cinema;
+import com.cinema.ticketsystem.model.Movie;
+import com.cinema.ticketsystem.model.Payment;
+import com.cinema.ticketsystem.model.Reservation;
+import com.cinema.ticketsystem.model.Screening;
+import com.cinema.ticketsystem.model.SeatHold;
+import com.cinema.ticketsystem.model.User;
+import com.cinema.ticketsystem.repository.CinemaRepository;
+import com.cinema.ticketsystem.repository.MovieRepository;
+import com.cinema.ticketsystem.repository.PaymentRepository;
+import com.cinema.ticketsystem.repository.ReservationRepository;
+import com.cinema.ticketsystem.repository.ScreeningRepository;
+import com.cinema.ticketsystem.repository.SeatHoldRepository;
+import com.cinema.ticketsystem.repository.UserRepository;
+import com.cinema.ticketsystem.support.QueryCountInspector;
+import com.cinema.ticketsystem.support.TestFixtures;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Deleting a screening at realistic volume: a full 40x50 auditorium with reservations, their
+ * payments and active holds. Nothing of the deleted screening may remain, a neighbouring
+ * screening must be untouched, and the statements issued must not grow with the row count.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ScreeningDeleteTest {
+
+    private static final int ROWS = 40;
+    private static final int SEATS_PER_ROW = 50;
+    private static final int RESERVED_ROWS = 30;
+    private static final int USERS = 25;
+
+    @Autowired
+    private ScreeningService screeningService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CinemaRepository cinemaRepository;
+
+    @Autowired
+    private MovieRepository movieRepository;
+
+    @Autowired
+    private ScreeningRepository screeningRepository;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private SeatHoldRepository seatHoldRepository;
+
+    @Test
+    void deleteRemovesEveryDependentRow() {
+        Movie movie = movieRepository.save(TestFixtures.movie("Deleted Screening"));
+        Cinema cinema = cinemaRepository.save(TestFixtures.cinema(ROWS, SEATS_PER_ROW));
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < USERS; i++) {
+            users.add(userRepository.save(TestFixtures.user()));
+        }
+        LocalDateTime start = LocalDateTime.now().plusDays(3);
+        Screening deleted = seed(cinema, movie, start, users);
+        Screening kept = seed(cinema, movie, start.plusHours(4), users);
+        long deletedReservations = countFor("reservations", deleted.getId());
+        long deletedHolds = countFor("seat_holds", deleted.getId());
+        long deletedPayments = countPaymentsFor(deleted.getId());
+        long keptReservations = countFor("reservations", kept.getId());
+        long keptHolds = countFor("seat_holds", kept.getId());
+        long keptPayments = countPaymentsFor(kept.getId());
+        long allPayments = countPayments();
+
+        long statementsBefore = QueryCountInspector.totalCount();
+        long started = System.nanoTime();
+        screeningService.deleteScreening(deleted.getId());
+        long elapsedMillis = (System.nanoTime() - started) / 1_000_000;
+        long statements = QueryCountInspector.totalCount() - statementsBefore;
+        System.out.printf("Deleted a screening with %d reservations, %d payments and %d holds in %d ms, %d statements%n",
+                deletedReservations, deletedPayments, deletedHolds, elapsedMillis, statements);
+
+        assertThat(screeningRepository.existsById(deleted.getId())).isFalse();
+        assertThat(countFor("reservations", deleted.getId())).isZero();
+        assertThat(countFor("seat_holds", deleted.getId())).isZero();
+        assertThat(countPaymentsFor(deleted.getId())).isZero();
+        // Payments are found through their reservation, so also check none was left detached
+        assertThat(countPayments()).isEqualTo(allPayments - deletedPayments);
+
+        assertThat(countFor("reservations", kept.getId())).isEqualTo(keptReservations);
+        assertThat(countFor("seat_holds", kept.getId())).isEqualTo(keptHolds);
+        assertThat(countPaymentsFor(kept.getId())).isEqualTo(keptPayments);
+        // Bulk deletes only; a per-row delete would issue thousands of statements
+        assertThat(statements).isLessThan(50);
+    }
+
+    private Screening seed(Cinema cinema, Movie movie, LocalDateTime start, List<User> users) {
+        return transactionTemplate.execute(status -> {
+            Screening screening = screeningRepository.save(TestFixtures.screening(cinema, movie, start));
+            List<Reservation> reservations = new ArrayList<>();
+            List<SeatHold> holds = new ArrayList<>();
+            int index = 0;
+            for (int row = 1; row <= ROWS; row++) {
+                for (int seat = 1; seat <= SEATS_PER_ROW; seat++) {
+                    User user = users.get(index++ % users.size());
+                    if (row <= RESERVED_ROWS) {
+                        reservations.add(TestFixtures.reservation(user, screening, row, seat));
+                    } else if (seat % 2 == 0) {
+                        holds.add(TestFixtures.hold(user, screening, row, seat, start.minusHours(1)));
+                    }
+                }
+            }
+            reservationRepository.saveAll(reservations);
+            seatHoldRepository.saveAll(holds);
+            List<Payment> payments = new ArrayList<>(reservations.size());
+            for (Reservation reservation : reservations) {
+                payments.add(TestFixtures.payment(reservation.getUser(), reservation));
+            }
+            paymentRepository.saveAll(payments);
+            return screening;
+        });
+    }
+
+    private long countFor(String table, Long screeningId) {
+        return jdbcTemplate.queryForObject(
+                "select count(*) from " + table + " where screening_id = ?", Long.class, screeningId);
+    }
+
+    private long countPayments() {
+        return jdbcTemplate.queryForObject("select count(*) from payments", Long.class);
+    }
+
+    private long countPaymentsFor(Long screeningId) {
+        return jdbcTemplate.queryForObject(
+                "select count(*) from payments p join reservations r on p.reservation_id = r.id where r.screening_id = ?",
+                Long.class, screeningId);
+    }
+}
@@ -0,0 +1,65 @@
+package com.cinema.ticketsystem.service;
+
+import com.cinema.ticketsystem.dto.ScreeningImportLineDTO;
+import com.cinema.ticketsystem.dto.ScreeningImportReportDTO;
+import com.cinema.ticketsystem.model.Cinema;
+import com.cinema.ticketsystem.model.Movie;
+import com.cinema.ticketsystem.repository.CinemaRepository;
+import com.cinema.ticketsystem.repository.MovieRepository;
+import com.cinema.ticketsystem.repository.ScreeningRepository;
+import com.cinema.ticketsystem.support.TestFixtures;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class ScreeningImportLimitTest {
+
+    private static final int MAX_LINES = 50000;
+
+    @Autowired
+    private ScreeningImportService screeningImportService;
+
+    @Autowired
+    private CinemaRepository cinemaRepository;
+
+    @Autowired
+    private MovieRepository movieRepository;
+
+    @Autowired
+    private ScreeningRepository screeningRepository;
+
+    @Test
+    void linesPastTheLimitAreReportedWithoutLosingCommittedChunks() {
+        Cinema cinema = cinemaRepository.save(TestFixtures.cinema(5, 5));
+        Movie movie = movieRepository.save(TestFixtures.movie("Imported"));
+        LocalDateTime start = LocalDateTime.now().plusDays(5).truncatedTo(ChronoUnit.MINUTES);
+
+        StringBuilder csv = new StringBuilder("cinemaId,movieId,startDateTime,ticketPrice\n");
+        csv.append(cinema.getId()).append(',').append(movie.getId()).append(',').append(start).append(",9.50\n");
+        // Rejected without touching the database, so the limit is reached quickly
+        for (int i = 1; i < MAX_LINES + 10; i++) {
+            csv.append(",,,\n");
+        }
+
+        ScreeningImportReportDTO report = screeningImportService.importScreenings(
+                new ByteArrayInputStream(csv.toString().getBytes(StandardCharsets.UTF_8)), "csv");
+
+        assertThat(report.getTruncated()).isTrue();
+        assertThat(report.getCreated()).isEqualTo(1);
+        assertThat(report.getTotal()).isEqualTo(MAX_LINES + 1);
+        ScreeningImportLineDTO last = report.getLines().get(report.getLines().size() - 1);
+        assertThat(last.getLine()).isEqualTo(MAX_LINES + 2L);
+        assertThat(last.getStatus()).isEqualTo("REJECTED");
+        assertThat(screeningRepository.existsById(report.getLines().get(0).getScreeningId())).isTrue();
+    }
+}
@@ -0,0 +1,67 @@
+package com.cinema.ticketsystem.service.implementation;
+
+import com.cinema.ticketsystem.inventory.SeatMutationExecutor;
+import com.cinema.ticketsystem.model.Screening;
+import com.cinema.ticketsystem.model.SeatHold;
+import com.cinema.ticketsystem.model.User;
+import com.cinema.ticketsystem.repository.SeatHoldRepository;
+import com.cinema.ticketsystem.service.HoldQuotaService;
+import com.cinema.ticketsystem.service.SeatCounterService;
+import com.cinema.ticketsystem.service.SeatInventoryService;
+import com.cinema.ticketsystem.support.TestFixtures;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class HoldExpiryServiceImplTest {
+
+    private final SeatHoldRepository seatHoldRepository = mock(SeatHoldRepository.class);
+    private final HoldQuotaService holdQuotaService = mock(HoldQuotaService.class);
+    private final HoldExpiryServiceImpl service = new HoldExpiryServiceImpl(seatHoldRepository,
+            mock(SeatInventoryService.class), holdQuotaService, mock(SeatCounterService.class),
+            mock(SeatMutationExecutor.class), mock(TransactionTemplate.class));
+
+    private final User user = TestFixtures.user();
+    private final Screening screening = TestFixtures.screening(TestFixtures.cinema(5, 5),
+            TestFixtures.movie("Rebuilt"), LocalDateTime.now().plusDays(1));
+
+    @AfterEach
+    void tearDown() {
+        service.destroy();
+    }
+
+    @Test
+    void rebuildRestoresQuotaOnlyForHoldsNotCountedYet() {
+        user.setId(3L);
+        screening.setId(1L);
+        SeatHold createdBeforeReady = hold(10L, 1);
+        SeatHold leftFromLastRun = hold(11L, 2);
+        service.track(List.of(createdBeforeReady));
+
+        when(seatHoldRepository.findScreeningIdsWithActiveHolds()).thenReturn(List.of(1L));
+        when(seatHoldRepository.findByScreeningIdAndIsActiveTrue(1L))
+                .thenReturn(List.of(createdBeforeReady, leftFromLastRun));
+        service.rebuild();
+
+        verify(holdQuotaService, times(1)).restore(3L, 1L, 1);
+
+        // Releasing both gives back exactly what was counted
+        service.untrack(List.of(10L, 11L));
+        verify(holdQuotaService, times(2)).release(3L, 1L, 1);
+    }
+
+    private SeatHold hold(Long id, int seat) {
+        SeatHold hold = TestFixtures.hold(user, screening, 1, seat, LocalDateTime.now().plusMinutes(5));
+        hold.setId(id);
+        hold.setIsActive(true);
+        return hold;
+    }
+}
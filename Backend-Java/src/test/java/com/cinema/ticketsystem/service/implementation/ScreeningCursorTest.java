@@ -0,0 +1,46 @@
+package com.cinema.ticketsystem.service.implementation;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ScreeningCursorTest {
+
+    @Test
+    void cursorRoundTrips() {
+        LocalDateTime start = LocalDateTime.of(2030, 5, 1, 19, 30);
+
+        ScreeningServiceImpl.CursorPosition position =
+                ScreeningServiceImpl.decodeCursor(ScreeningServiceImpl.encodeCursor(start, 42L));
+
+        assertThat(position.startDateTime()).isEqualTo(start);
+        assertThat(position.id()).isEqualTo(42L);
+    }
+
+    @Test
+    void malformedCursorsAreRejectedAsInvalid() {
+        String[] cursors = {
+                "not base64!",
+                encode("2030-05-01T19:30"),
+                encode("2030-05-01T19:30|42|7"),
+                encode("yesterday|42"),
+                encode("2030-05-01T19:30|forty-two"),
+                encode("|")
+        };
+        for (String cursor : cursors) {
+            assertThatThrownBy(() -> ScreeningServiceImpl.decodeCursor(cursor))
+                    .as("cursor %s", cursor)
+                    .isInstanceOf(RuntimeException.class)
+                    .hasMessage("Invalid cursor");
+        }
+    }
+
+    private static String encode(String position) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+}
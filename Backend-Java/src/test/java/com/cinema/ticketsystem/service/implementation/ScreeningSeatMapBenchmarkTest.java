@@ -0,0 +1,98 @@
+package com.cinema.ticketsystem.service.implementation;
+
+import com.cinema.ticketsystem.dto.SeatDTO;
+import com.cinema.ticketsystem.inventory.AuditoriumLayoutRegistry;
+import com.cinema.ticketsystem.inventory.ScreeningSeatState;
+import com.cinema.ticketsystem.model.Reservation;
+import com.cinema.ticketsystem.support.TestFixtures;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Before/after comparison for the screening seat map on a 40x50 auditorium. The old build
+ * scanned every reservation entity for every seat; the current one makes a single pass over
+ * the in-memory seat statuses. Timings are printed for comparison between runs.
+ */
+class ScreeningSeatMapBenchmarkTest {
+
+    private static final int ROWS = 40;
+    private static final int SEATS_PER_ROW = 50;
+    private static final int ITERATIONS = 40;
+
+    @Test
+    void seatMapAtSeveralOccupancyLevels() {
+        Random random = new Random(3);
+        AuditoriumLayoutRegistry layouts = new AuditoriumLayoutRegistry();
+        for (double occupancy : new double[] {0.0, 0.25, 0.5, 0.9}) {
+            ScreeningSeatState state = new ScreeningSeatState(1L, 1L, "Test Cinema", 1L, "Test Movie",
+                    LocalDateTime.now().plusDays(1), layouts.get(ROWS, SEATS_PER_ROW));
+            List<Reservation> reservations = new ArrayList<>();
+            for (int row = 1; row <= ROWS; row++) {
+                for (int seat = 1; seat <= SEATS_PER_ROW; seat++) {
+                    double pick = random.nextDouble();
+                    if (pick < occupancy * 0.8) {
+                        state.markReserved(row, seat);
+                        reservations.add(TestFixtures.reservation(null, null, row, seat));
+                    } else if (pick < occupancy) {
+                        state.markHeld(row, seat);
+                    }
+                }
+            }
+
+            List<SeatDTO> current = ScreeningServiceImpl.createSeatsForScreening(state);
+            List<SeatDTO> previous = scanReservations(reservations);
+            assertThat(current).hasSize(ROWS * SEATS_PER_ROW);
+            for (int i = 0; i < current.size(); i++) {
+                SeatDTO seat = current.get(i);
+                assertThat(seat.getIsReserved()).isEqualTo(previous.get(i).getIsReserved());
+                assertThat(seat.getStatus()).isEqualTo(
+                        ScreeningSeatState.statusName(state.getStatus(seat.getRow(), seat.getSeat())));
+            }
+
+            long before = time(() -> scanReservations(reservations));
+            long after = time(() -> ScreeningServiceImpl.createSeatsForScreening(state));
+            System.out.printf("Seat map %dx%d at %.0f%% occupancy: before %d us, after %d us%n",
+                    ROWS, SEATS_PER_ROW, occupancy * 100, before / 1000, after / 1000);
+        }
+    }
+
+    // The previous build: one stream over all reservations per seat
+    private static List<SeatDTO> scanReservations(List<Reservation> reservations) {
+        List<SeatDTO> seats = new ArrayList<>();
+        for (int row = 1; row <= ROWS; row++) {
+            for (int number = 1; number <= SEATS_PER_ROW; number++) {
+                int r = row;
+                int n = number;
+                SeatDTO seat = new SeatDTO();
+                seat.setRow(row);
+                seat.setSeat(number);
+                seat.setIsReserved(reservations.stream()
+                        .anyMatch(reservation -> reservation.getRow() == r && reservation.getSeat() == n));
+                seats.add(seat);
+            }
+        }
+        return seats;
+    }
+
+    /** Median nanoseconds per call after a warm-up. */
+    private static long time(Runnable build) {
+        for (int i = 0; i < ITERATIONS / 4; i++) {
+            build.run();
+        }
+        long[] samples = new long[ITERATIONS];
+        for (int i = 0; i < ITERATIONS; i++) {
+            long started = System.nanoTime();
+            build.run();
+            samples[i] = System.nanoTime() - started;
+        }
+        Arrays.sort(samples);
+        return samples[ITERATIONS / 2];
+    }
+}
@@ -0,0 +1,118 @@
+package com.cinema.ticketsystem.service.implementation;
+
+import com.cinema.ticketsystem.service.SeatSelectionService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SeatEventServiceImplTest {
+
+    private static final long SEND_TIMEOUT_MILLIS = 200;
+
+    private final CountDownLatch releaseBlockedSend = new CountDownLatch(1);
+    private final Deque<SseEmitter> nextEmitters = new ArrayDeque<>();
+    private SeatEventServiceImpl service;
+
+    @AfterEach
+    void tearDown() {
+        releaseBlockedSend.countDown();
+        if (service != null) {
+            service.destroy();
+        }
+    }
+
+    @Test
+    void stalledSendIsDroppedWithoutWaitingForTheNextEvent() throws Exception {
+        service = newService(1);
+        BlockingEmitter stalled = new BlockingEmitter();
+        RecordingEmitter healthy = new RecordingEmitter();
+        nextEmitters.add(stalled);
+        nextEmitters.add(healthy);
+
+        // The only sender blocks on the first client's snapshot
+        service.subscribe(1L, 10L);
+        assertThat(stalled.sendStarted.await(5, TimeUnit.SECONDS)).isTrue();
+        service.subscribe(1L, 11L);
+
+        // No further event arrives for the stalled client; the sweep alone must find it
+        assertThat(healthy.snapshotSent.await(5, TimeUnit.SECONDS))
+                .as("snapshot for the healthy client while the other send is blocked")
+                .isTrue();
+        assertThat(service.getWatcherCount()).isEqualTo(1);
+
+        // The write timeout eventually fails the blocked send and the stalled emitter is closed
+        releaseBlockedSend.countDown();
+        assertThat(stalled.completedWithError.await(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void watchersAreCappedPerUser() {
+        service = newService(1);
+        for (int i = 0; i < 2; i++) {
+            nextEmitters.add(new RecordingEmitter());
+            service.subscribe(1L, 10L);
+        }
+        nextEmitters.add(new RecordingEmitter());
+        assertThatThrownBy(() -> service.subscribe(2L, 10L))
+                .isInstanceOf(RuntimeException.class);
+
+        nextEmitters.add(new RecordingEmitter());
+        service.subscribe(2L, 11L);
+        assertThat(service.getWatcherCount()).isEqualTo(3);
+    }
+
+    private SeatEventServiceImpl newService(int senderThreads) {
+        SeatSelectionService seatSelectionService = mock(SeatSelectionService.class);
+        when(seatSelectionService.getPackedSeatMap(anyLong())).thenReturn(Map.of("version", 1L));
+        return new SeatEventServiceImpl(seatSelectionService, 100, 2, 512, 30, senderThreads, SEND_TIMEOUT_MILLIS) {
+            @Override
+            SseEmitter newEmitter(long timeoutMillis) {
+                return nextEmitters.poll();
+            }
+        };
+    }
+
+    private static class RecordingEmitter extends SseEmitter {
+        private final CountDownLatch snapshotSent = new CountDownLatch(1);
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            snapshotSent.countDown();
+        }
+    }
+
+    // Stands in for a client that stopped reading: the write blocks until the servlet write timeout
+    private class BlockingEmitter extends SseEmitter {
+        private final CountDownLatch sendStarted = new CountDownLatch(1);
+        private final CountDownLatch completedWithError = new CountDownLatch(1);
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            sendStarted.countDown();
+            try {
+                releaseBlockedSend.await(30, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            throw new IOException("Write timed out");
+        }
+
+        @Override
+        public void completeWithError(Throwable ex) {
+            completedWithError.countDown();
+        }
+    }
+}
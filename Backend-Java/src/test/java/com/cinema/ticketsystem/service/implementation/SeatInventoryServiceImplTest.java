@@ -0,0 +1,107 @@
+package com.cinema.ticketsystem.service.implementation;
+
+import com.cinema.ticketsystem.dto.SeatPosition;
+import com.cinema.ticketsystem.inventory.AuditoriumLayoutRegistry;
+import com.cinema.ticketsystem.inventory.ScreeningSeatState;
+import com.cinema.ticketsystem.inventory.SeatStatusChangedEvent;
+import com.cinema.ticketsystem.model.Screening;
+import com.cinema.ticketsystem.repository.ReservationRepository;
+import com.cinema.ticketsystem.repository.ScreeningRepository;
+import com.cinema.ticketsystem.repository.SeatHoldRepository;
+import com.cinema.ticketsystem.support.TestFixtures;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SeatInventoryServiceImplTest {
+
+    private final ScreeningRepository screeningRepository = mock(ScreeningRepository.class);
+    private final ReservationRepository reservationRepository = mock(ReservationRepository.class);
+    private final SeatHoldRepository seatHoldRepository = mock(SeatHoldRepository.class);
+    private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+    private final SeatInventoryServiceImpl service = new SeatInventoryServiceImpl(screeningRepository,
+            reservationRepository, seatHoldRepository, eventPublisher, new AuditoriumLayoutRegistry());
+
+    private final CountDownLatch loadStarted = new CountDownLatch(1);
+    private final CountDownLatch releaseLoad = new CountDownLatch(1);
+    private final ExecutorService executor = Executors.newFixedThreadPool(2);
+
+    @AfterEach
+    void tearDown() {
+        releaseLoad.countDown();
+        executor.shutdownNow();
+    }
+
+    @Test
+    void changeCommittedDuringTheLoadIsAppliedOnceItCompletes() throws Exception {
+        blockLoadOf(1L);
+
+        CompletableFuture<ScreeningSeatState> reader = CompletableFuture.supplyAsync(() -> service.getState(1L), executor);
+        assertThat(loadStarted.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // Not blocked by the running load, and the load's read did not see this hold
+        service.markHeld(1L, List.of(new SeatPosition(2, 3)));
+        releaseLoad.countDown();
+
+        ScreeningSeatState state = reader.get(5, TimeUnit.SECONDS);
+        assertThat(state.isHeld(2, 3)).isTrue();
+        assertThat(state.getVersion()).isEqualTo(1);
+        verify(eventPublisher).publishEvent(any(SeatStatusChangedEvent.class));
+    }
+
+    @Test
+    void concurrentReadersShareOneLoad() throws Exception {
+        blockLoadOf(1L);
+
+        CompletableFuture<ScreeningSeatState> first = CompletableFuture.supplyAsync(() -> service.getState(1L), executor);
+        assertThat(loadStarted.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<ScreeningSeatState> second = CompletableFuture.supplyAsync(() -> service.getState(1L), executor);
+        releaseLoad.countDown();
+
+        assertThat(first.get(5, TimeUnit.SECONDS)).isSameAs(second.get(5, TimeUnit.SECONDS));
+        verify(screeningRepository, times(1)).findWithCinemaAndMovieById(1L);
+    }
+
+    @Test
+    void failedLoadIsRetriedByTheNextReader() {
+        when(screeningRepository.findWithCinemaAndMovieById(7L)).thenReturn(Optional.empty());
+
+        for (int attempt = 0; attempt < 2; attempt++) {
+            assertThatThrownBy(() -> service.getState(7L)).hasMessage("Screening not found");
+        }
+        verify(screeningRepository, times(2)).findWithCinemaAndMovieById(7L);
+    }
+
+    private void blockLoadOf(Long screeningId) {
+        Screening screening = TestFixtures.screening(TestFixtures.cinema(5, 5), TestFixtures.movie("Loaded"),
+                LocalDateTime.now().plusDays(1));
+        screening.setId(screeningId);
+        screening.getCinema().setId(1L);
+        screening.getMovie().setId(1L);
+        when(screeningRepository.findWithCinemaAndMovieById(screeningId)).thenAnswer(invocation -> {
+            loadStarted.countDown();
+            releaseLoad.await(5, TimeUnit.SECONDS);
+            return Optional.of(screening);
+        });
+        when(reservationRepository.findSeatPositionsByScreeningId(anyLong())).thenReturn(List.of());
+        when(seatHoldRepository.findActiveSeatPositionsByScreeningId(anyLong(), any())).thenReturn(List.of());
+    }
+}
@@ -0,0 +1,32 @@
+package com.cinema.ticketsystem.support;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts the SQL statements Hibernate issues, per thread and in total.
+ * Registered through hibernate.session_factory.statement_inspector in application-test.properties.
+ * Per-thread counts ignore scheduled jobs running next to the test; the total also covers
+ * work handed to the seat writer threads.
+ */
+public class QueryCountInspector implements StatementInspector {
+    
+    private static final ThreadLocal<long[]> THREAD_COUNT = ThreadLocal.withInitial(() -> new long[1]);
+    private static final AtomicLong TOTAL_COUNT = new AtomicLong();
+    
+    @Override
+    public String inspect(String sql) {
+        THREAD_COUNT.get()[0]++;
+        TOTAL_COUNT.incrementAndGet();
+        return sql;
+    }
+    
+    public static long threadCount() {
+        return THREAD_COUNT.get()[0];
+    }
+    
+    public static long totalCount() {
+        return TOTAL_COUNT.get();
+    }
+}
@@ -0,0 +1,98 @@
+package com.cinema.ticketsystem.support;
+
+import com.cinema.ticketsystem.model.Cinema;
+import com.cinema.ticketsystem.model.Movie;
+import com.cinema.ticketsystem.model.Payment;
+import com.cinema.ticketsystem.model.Reservation;
+import com.cinema.ticketsystem.model.Review;
+import com.cinema.ticketsystem.model.Screening;
+import com.cinema.ticketsystem.model.SeatHold;
+import com.cinema.ticketsystem.model.User;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Unsaved entities with every required field filled in. Emails are random, so tests sharing
+ * an application context never collide on unique keys.
+ */
+public final class TestFixtures {
+    
+    private TestFixtures() {
+    }
+    
+    public static User user() {
+        User user = new User();
+        user.setEmail("user-" + UUID.randomUUID() + "@test.local");
+        user.setPassword("secret-password");
+        user.setFirstName("Test");
+        user.setLastName("User");
+        user.setPhoneNumber("+10000000000");
+        return user;
+    }
+    
+    public static Cinema cinema(int rows, int seatsPerRow) {
+        Cinema cinema = new Cinema();
+        cinema.setName("Test Cinema " + UUID.randomUUID());
+        cinema.setRows(rows);
+        cinema.setSeatsPerRow(seatsPerRow);
+        return cinema;
+    }
+    
+    public static Movie movie(String title) {
+        Movie movie = new Movie();
+        movie.setTitle(title);
+        movie.setDurationMinutes(120);
+        movie.setGenre("Drama");
+        movie.setReleaseDate(LocalDate.now().minusMonths(1));
+        return movie;
+    }
+    
+    public static Screening screening(Cinema cinema, Movie movie, LocalDateTime start) {
+        Screening screening = new Screening();
+        screening.setCinema(cinema);
+        screening.setMovie(movie);
+        screening.setStartDateTime(start);
+        screening.setTicketPrice(new BigDecimal("12.50"));
+        return screening;
+    }
+    
+    public static Reservation reservation(User user, Screening screening, int row, int seat) {
+        Reservation reservation = new Reservation();
+        reservation.setUser(user);
+        reservation.setScreening(screening);
+        reservation.setRow(row);
+        reservation.setSeat(seat);
+        return reservation;
+    }
+    
+    public static SeatHold hold(User user, Screening screening, int row, int seat, LocalDateTime expiresAt) {
+        SeatHold hold = new SeatHold();
+        hold.setUser(user);
+        hold.setScreening(screening);
+        hold.setRow(row);
+        hold.setSeat(seat);
+        hold.setExpiresAt(expiresAt);
+        return hold;
+    }
+    
+    public static Payment payment(User user, Reservation reservation) {
+        Payment payment = new Payment();
+        payment.setUser(user);
+        payment.setReservation(reservation);
+        payment.setAmount(new BigDecimal("12.50"));
+        payment.setStatus(Payment.PaymentStatus.COMPLETED);
+        payment.setPaymentMethod(Payment.PaymentMethod.CREDIT_CARD);
+        return payment;
+    }
+    
+    public static Review review(User user, Movie movie, int rating) {
+        Review review = new Review();
+        review.setUser(user);
+        review.setMovie(movie);
+        review.setRating(rating);
+        return review;
+    }
+}